@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+// Сущности для бенчмарков: с id для маппинга и сериализации, без id для сохранения в БД
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(Long id, int number) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + number);
+        user.setEmail("user" + number + "@shareit.ru");
+        return user;
+    }
+
+    static Item item(Long id, int number, User owner) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + number);
+        item.setDescription("Аккумуляторная дрель с двумя батареями, номер " + number);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    static Booking booking(Long id, Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    static Comment comment(Long id, Item item, User author, int number) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("Отличная вещь, спасибо " + number);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(NOW.minusDays(number));
+        return comment;
+    }
+
+    static ItemRequest request(Long id, User requester) {
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setDescription("Нужна дрель на выходные");
+        request.setRequester(requester);
+        request.setCreated(NOW);
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Сериализация ответов так, как её делает сервер: ObjectMapper с настройками Spring Boot по умолчанию
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<BookingDtoOutput> bookings;
+    private List<ItemDtoWithBookings> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        BookingMapper bookingMapper = new BookingMapper();
+        ItemMapper itemMapper = new ItemMapper();
+        User owner = Fixtures.user(1L, 1);
+        User booker = Fixtures.user(2L, 2);
+        bookings = IntStream.range(0, pageSize)
+                .mapToObj(i -> Fixtures.booking((long) i, Fixtures.item((long) i, i, owner), booker,
+                        Fixtures.NOW.plusDays(i), BookingStatus.APPROVED))
+                .map(bookingMapper::bookingToBookingDtoOutput)
+                .collect(Collectors.toList());
+        items = IntStream.range(0, pageSize)
+                .mapToObj(i -> {
+                    Item item = Fixtures.item((long) i, i, owner);
+                    List<Comment> comments = IntStream.range(0, 3)
+                            .mapToObj(j -> Fixtures.comment((long) j, item, booker, j))
+                            .collect(Collectors.toList());
+                    return itemMapper.itemToItemDtoWithBookings(item, new BookingIdAndBookerId(1L, 2L),
+                            new BookingIdAndBookerId(3L, 2L), comments);
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] bookingDtoOutput() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings.get(0));
+    }
+
+    @Benchmark
+    public byte[] bookingDtoOutputPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemDtoWithBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items.get(0));
+    }
+
+    @Benchmark
+    public byte[] itemDtoWithBookingsPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDtoDefault;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestOutput;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final ItemRequestMapper itemRequestMapper = new ItemRequestMapper();
+
+    private Booking booking;
+    private Item item;
+    private List<Comment> comments;
+    private ItemRequest request;
+    private List<Item> answers;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1L, 1);
+        User booker = Fixtures.user(2L, 2);
+        item = Fixtures.item(1L, 1, owner);
+        booking = Fixtures.booking(1L, item, booker, Fixtures.NOW, BookingStatus.APPROVED);
+        comments = IntStream.range(0, 5)
+                .mapToObj(i -> Fixtures.comment((long) i, item, booker, i))
+                .collect(Collectors.toList());
+        request = Fixtures.request(1L, booker);
+        answers = IntStream.range(0, 5)
+                .mapToObj(i -> Fixtures.item((long) i, i, owner))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BookingDtoOutput bookingToBookingDtoOutput() {
+        return bookingMapper.bookingToBookingDtoOutput(booking);
+    }
+
+    @Benchmark
+    public ItemDtoWithBookings itemToItemDtoWithBookings() {
+        return itemMapper.itemToItemDtoWithBookings(item, new BookingIdAndBookerId(1L, 2L),
+                new BookingIdAndBookerId(3L, 2L), comments);
+    }
+
+    @Benchmark
+    public ItemDtoDefault itemToItemDtoDefault() {
+        return itemMapper.itemToItemDtoDefault(item);
+    }
+
+    @Benchmark
+    public ItemRequestOutput itemRequestToItemRequestOutput() {
+        return itemRequestMapper.itemRequestToItemRequestOutput(request, answers);
+    }
+}
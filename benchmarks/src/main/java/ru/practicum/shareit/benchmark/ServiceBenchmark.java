@@ -0,0 +1,186 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Сервисы на полном контексте сервера поверх H2 в памяти; размер набора данных задаётся параметрами, например -p items=10000
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int ITEMS_PER_OWNER = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private EntityManagerFactory entityManagerFactory;
+    private long[] ownerIds;
+    private long[] bookerIds;
+    private long[] itemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.orm.jpa=WARN",
+                        "--logging.level.org.springframework.transaction=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        populate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> bookingsByOwner() {
+        return inRequest(() -> bookingService.getBookingsByOwnerId("ALL", pick(ownerIds), 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> waitingBookingsByOwner() {
+        return inRequest(() -> bookingService.getBookingsByOwnerId("WAITING", pick(ownerIds), 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<BookingDtoOutput> bookingsByBooker() {
+        return inRequest(() -> bookingService.getBookingsByUserId("ALL", pick(bookerIds), 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookings> itemsByOwner() {
+        return inRequest(() -> itemService.getItemsByUser(pick(ownerIds)));
+    }
+
+    // Карточка вещи обслуживается ItemDetailsCache, поэтому после прогрева это в основном попадания в кэш
+    @Benchmark
+    public ItemDtoWithBookings itemById() {
+        return inRequest(() -> itemService.getItemById(pick(itemIds), pick(bookerIds)));
+    }
+
+    // Как open-in-view в веб-запросе: один EntityManager на вызов, ленивые связи догружаются в нём
+    private <T> T inRequest(Supplier<T> call) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return call.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(entityManager);
+        }
+    }
+
+    private static long pick(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    // Каждый владелец получает ITEMS_PER_OWNER вещей, у каждой вещи bookingsPerItem бронирований в прошлом и будущем
+    private void populate() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        int owners = Math.max(1, items / ITEMS_PER_OWNER);
+        List<User> ownerList = saveInChunks(userRepository, IntStream.range(0, owners)
+                .mapToObj(i -> Fixtures.user(null, i))
+                .collect(Collectors.toList()));
+        List<User> bookerList = saveInChunks(userRepository, IntStream.range(owners, owners * 2)
+                .mapToObj(i -> Fixtures.user(null, i))
+                .collect(Collectors.toList()));
+        List<Item> itemList = saveInChunks(itemRepository, IntStream.range(0, items)
+                .mapToObj(i -> Fixtures.item(null, i, ownerList.get(i % owners)))
+                .collect(Collectors.toList()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < itemList.size(); i++) {
+            Item item = itemList.get(i);
+            for (int j = 0; j < bookingsPerItem; j++) {
+                User booker = bookerList.get((i + j) % owners);
+                BookingStatus status = j % 3 == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED;
+                bookings.add(Fixtures.booking(null, item, booker, now.plusDays(2L * (j - bookingsPerItem / 2)), status));
+            }
+            comments.add(Fixtures.comment(null, item, bookerList.get(i % owners), i));
+            if (bookings.size() >= CHUNK_SIZE) {
+                bookingRepository.saveAll(bookings);
+                bookings.clear();
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        saveInChunks(commentRepository, comments);
+        ownerIds = ownerList.stream().mapToLong(User::getId).toArray();
+        bookerIds = bookerList.stream().mapToLong(User::getId).toArray();
+        itemIds = itemList.stream().mapToLong(Item::getId).toArray();
+    }
+
+    private static <T> List<T> saveInChunks(CrudRepository<T, Long> repository, List<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK_SIZE) {
+            repository.saveAll(entities.subList(from, Math.min(entities.size(), from + CHUNK_SIZE))).forEach(saved::add);
+        }
+        return saved;
+    }
+}
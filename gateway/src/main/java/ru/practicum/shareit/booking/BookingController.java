@@ -7,13 +7,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exaption.BadRequestException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -24,44 +29,59 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "after", required = false) String after) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new BadRequestException(stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+		return bookingClient.getBookings(userId, state, from, size, after);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
 			@PathVariable @Positive Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> editBookingStatus(@PathVariable("bookingId") @Positive Long bookingId, @RequestParam("approved") boolean approved, @RequestHeader(name = "X-Sharer-User-Id") @Positive Long ownerId) {
+	public Mono<ResponseEntity<Object>> editBookingStatus(@PathVariable("bookingId") @Positive Long bookingId, @RequestParam("approved") boolean approved, @RequestHeader(name = "X-Sharer-User-Id") @Positive Long ownerId) {
 		log.info("Edit booking status with bookingId {}, approved={}, ownerId={}", bookingId, approved, ownerId);
 		return bookingClient.editBookingStatus(bookingId, approved, ownerId);
 	}
 
+	@PatchMapping("/batch")
+	public Mono<ResponseEntity<Object>> editBookingStatuses(@RequestHeader(name = "X-Sharer-User-Id") @Positive Long ownerId,
+			@RequestBody @NotEmpty @Size(max = 1000) List<@Valid BookingDecisionDto> decisions) {
+		log.info("Edit statuses of {} bookings, ownerId={}", decisions.size(), ownerId);
+		return bookingClient.editBookingStatuses(ownerId, decisions);
+	}
+
+	@GetMapping("/owner/export")
+	public Mono<ResponseEntity<Object>> exportBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") @Positive long userId) {
+		log.info("Export bookings of owner userId={}", userId);
+		return bookingClient.exportBookingsByOwner(userId);
+	}
+
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
 											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											  @RequestParam(name = "after", required = false) String after) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new BadRequestException(stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookingsByOwner(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+		return bookingClient.getBookingsByOwner(userId, state, from, size, after);
 	}
 }
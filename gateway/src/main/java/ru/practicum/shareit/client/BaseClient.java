@@ -1,82 +1,168 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding", "te",
+            "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+    // Диагностика сервера (X-Query-Count, X-Query-Time) внешним клиентам не отдаётся
+    private static final String INTERNAL_HEADER_PREFIX = "x-query-";
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient webClient;
+    @Nullable
+    private final SingleFlight singleFlight;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable String baseUrl) {
+        this(rest, webClient, baseUrl, null);
+    }
+
+    // Если передан webClient, запросы к серверу идут неблокирующе, иначе через RestTemplate в потоке запроса
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable String baseUrl,
+                      @Nullable SingleFlight singleFlight) {
         this.rest = rest;
+        this.webClient = webClient == null ? null : webClient.mutate()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build();
+        this.singleFlight = singleFlight;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        WebClient client = webClient;
+        if (client != null) {
+            return exchange(client, HttpMethod.GET, path, userId, parameters, null);
+        }
+        return Mono.fromCallable(() -> makeAndStreamRequest(HttpMethod.GET, path, userId, parameters));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    // Для частых одинаковых чтений: одновременные запросы с тем же адресом и X-Sharer-User-Id получают один ответ сервера.
+    // Такой ответ раздаётся нескольким клиентам, поэтому в блокирующем режиме тело читается в память, а не передаётся потоком
+    protected Mono<ResponseEntity<Object>> getShared(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        if (singleFlight == null) {
+            return get(path, userId, parameters);
+        }
+        String key = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of()) + "|" + userId;
+        WebClient client = webClient;
+        return singleFlight.execute(key, () -> client != null
+                ? exchange(client, HttpMethod.GET, path, userId, parameters, null)
+                : Mono.fromCallable(() -> makeAndBufferRequest(HttpMethod.GET, path, userId, parameters)));
+    }
+
+    // Для ответов неограниченного размера: в обоих режимах тело передаётся клиенту потоком,
+    // тогда как в неблокирующем режиме get собирает ответ в память целиком
+    protected Mono<ResponseEntity<Object>> stream(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return Mono.fromCallable(() -> makeAndStreamRequest(HttpMethod.GET, path, userId, parameters));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return send(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return send(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return send(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return send(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> send(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient client = webClient;
+        if (client != null) {
+            return exchange(client, method, path, userId, parameters, body);
+        }
+        return Mono.fromCallable(() -> makeAndSendRequest(method, path, userId, parameters, body));
+    }
+
+    // Поток запроса освобождается на время обращения к серверу: ответ приходит в event loop reactor-netty
+    // и отдаётся клиенту байтами, без разбора в Object.
+    // Тело читается в память целиком, не больше shareit-server.http.max-in-memory-size (16MB по умолчанию):
+    // ответ крупнее лимита завершается DataBufferLimitException, поэтому списки без ограничения размера идут через stream
+    private <T> Mono<ResponseEntity<Object>> exchange(WebClient client, HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> {
+                    int status = response.getStatusCodeValue();
+                    if (status < 200 || status >= 300) {
+                        return ResponseEntity.status(status).body(response.getBody());
+                    }
+                    return ResponseEntity.status(status).headers(endToEndHeaders(response.getHeaders())).body(response.getBody());
+                });
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
@@ -95,6 +181,89 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    // Тело успешного ответа отдаётся клиенту потоком как есть, без разбора в Object и повторной сериализации;
+    // соединение с сервером освобождается, когда поток дочитан и закрыт
+    private ResponseEntity<Object> makeAndStreamRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            response = request.execute();
+            int status = response.getRawStatusCode();
+            if (status < 200 || status >= 300) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                return ResponseEntity.status(status).body(body);
+            }
+            ClientHttpResponse serverResponse = response;
+            return ResponseEntity.status(status).headers(endToEndHeaders(response.getHeaders())).body(new InputStreamResource(new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    serverResponse.close();
+                }
+            }));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private ResponseEntity<Object> makeAndBufferRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            try (ClientHttpResponse response = request.execute()) {
+                int status = response.getRawStatusCode();
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                if (status < 200 || status >= 300) {
+                    return ResponseEntity.status(status).body(body);
+                }
+                return ResponseEntity.status(status).headers(endToEndHeaders(response.getHeaders())).body(body);
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    // Тело уходит на сервер байтами как есть, успешный ответ копируется в out без разбора;
+    // тело ответа с ошибкой возвращается вызывающему
+    protected ResponseEntity<Object> postAndCopy(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                 MediaType contentType, byte[] body, OutputStream out) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.POST);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            request.getHeaders().setAccept(List.of(contentType, MediaType.APPLICATION_JSON));
+            StreamUtils.copy(body, request.getBody());
+            try (ClientHttpResponse response = request.execute()) {
+                int status = response.getRawStatusCode();
+                if (status < 200 || status >= 300) {
+                    return ResponseEntity.status(status).body(StreamUtils.copyToByteArray(response.getBody()));
+                }
+                StreamUtils.copy(response.getBody(), out);
+                return ResponseEntity.status(status).build();
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on POST request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private static HttpHeaders endToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            String lowerName = name.toLowerCase();
+            if (!HOP_BY_HOP_HEADERS.contains(lowerName) && !lowerName.startsWith(INTERNAL_HEADER_PREFIX)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -106,8 +275,9 @@ public class BaseClient {
     }
 
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        // Transfer-Encoding сервера нельзя отдавать как есть: Tomcat шлюза кадрирует ответ сам, и заголовок задваивается
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            return ResponseEntity.status(response.getStatusCode()).headers(endToEndHeaders(response.getHeaders())).body(response.getBody());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Склейка одновременных одинаковых GET: пока запрос к серверу в полёте, такие же запросы ждут его ответ, а не идут на сервер.
+// Ответ не кэшируется: после завершения запроса ключ удаляется, и следующий GET снова уходит на сервер
+@Component
+public class SingleFlight {
+
+    private static final String METRIC = "gateway.single-flight.calls";
+
+    private final int maxInFlight;
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter bypassed;
+
+    // max-in-flight ограничивает число разных ключей в полёте; сверх него запросы идут на сервер без склейки, 0 отключает склейку
+    @Autowired
+    public SingleFlight(@Value("${shareit-gateway.single-flight.max-in-flight:10000}") int maxInFlight,
+                        MeterRegistry meterRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.leaders = Counter.builder(METRIC).tag("result", "leader").register(meterRegistry);
+        this.coalesced = Counter.builder(METRIC).tag("result", "coalesced").register(meterRegistry);
+        this.bypassed = Counter.builder(METRIC).tag("result", "bypassed").register(meterRegistry);
+        Gauge.builder("gateway.single-flight.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    // cache() раздаёт один ответ всем подписчикам и не отменяет запрос к серверу, если отключился только один из клиентов
+    public Mono<ResponseEntity<Object>> execute(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> existing = inFlight.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            if (inFlight.size() >= maxInFlight) {
+                bypassed.increment();
+                return call.get();
+            }
+            // Ключ освобождается до того, как ответ получат ожидающие, и только своим запросом:
+            // повторный GET сразу после ответа уйдёт на сервер, а не получит уже завершённый
+            AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+            Mono<ResponseEntity<Object>> flight = Mono.defer(call)
+                    .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(flight);
+            existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            leaders.increment();
+            return flight;
+        });
+    }
+}
@@ -1,14 +1,21 @@
 package ru.practicum.shareit.exaption;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.validation.ConstraintViolationException;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
 @ControllerAdvice
 public class CustomResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -19,6 +26,37 @@ public class CustomResponseEntityExceptionHandler extends ResponseEntityExceptio
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    // Ошибки проверки параметров и элементов списков в теле запроса
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    // Режим reactive: сервер не ответил за read-timeout — 504, соединение не получено (пул занят, сервер недоступен) — 503.
+    // Адрес сервера в ответ клиенту не попадает, только в лог
+    @ExceptionHandler(WebClientRequestException.class)
+    public ResponseEntity<Object> handleWebClientRequestException(WebClientRequestException ex, WebRequest request) {
+        log.warn("Request to shareit-server failed: {}", ex.getMessage());
+        if (ex.getCause() instanceof ReadTimeoutException) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT, "Server did not respond in time");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+        }
+        return serverUnavailable();
+    }
+
+    // PoolAcquireTimeoutException пула reactor-netty лежит во внутреннем пакете, поэтому ловится по базовому TimeoutException
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Object> handlePoolAcquireTimeoutException(TimeoutException ex, WebRequest request) {
+        log.warn("No connection to shareit-server available: {}", ex.getMessage());
+        return serverUnavailable();
+    }
+
+    private ResponseEntity<Object> serverUnavailable() {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Server unavailable");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     @Data
     @AllArgsConstructor
     private static class ErrorResponse {
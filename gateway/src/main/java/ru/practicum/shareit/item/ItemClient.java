@@ -1,62 +1,175 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDtoGateway;
 import ru.practicum.shareit.item.dto.ItemDtoGateway;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsGateWay;
+import ru.practicum.shareit.item.dto.ItemImportErrorGateway;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Map;
 
+@Slf4j
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final int importChunkSize;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItServerRequestFactory,
+                      ObjectProvider<WebClient> shareItServerWebClient,
+                      SingleFlight singleFlight,
+                      @Value("${shareit-gateway.item-import.chunk-size:1000}") int importChunkSize,
+                      ObjectMapper objectMapper) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                shareItServerWebClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                singleFlight
         );
+        this.importChunkSize = importChunkSize;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> createItem(ItemDtoGateway item, Long userId) {
+    public Mono<ResponseEntity<Object>> createItem(ItemDtoGateway item, Long userId) {
         return post("/", userId, item);
     }
 
-    public ResponseEntity<Object> getItemsByUser(Long userId) {
+    // Импорт пересылается на сервер пачками строк: HTTP-клиент сначала отправляет всё тело и только потом читает ответ,
+    // поэтому один большой запрос заблокировался бы, когда сервер заполнит буферы результатами.
+    // offset продолжает нумерацию строк на сервере, так что ответы пачек просто склеиваются
+    public void importItems(InputStream body, Long userId, HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        int lines = readChunk(reader, chunk);
+        ResponseEntity<Object> first = importChunk(chunk, 0, userId, results);
+        if (!first.getStatusCode().is2xxSuccessful()) {
+            response.setStatus(first.getStatusCodeValue());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            if (first.getBody() != null) {
+                response.getOutputStream().write((byte[]) first.getBody());
+            }
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        results.writeTo(out);
+        out.flush();
+        long offset = 0;
+        while (lines == importChunkSize) {
+            offset += lines;
+            lines = readChunk(reader, chunk);
+            if (lines == 0) {
+                break;
+            }
+            // Статус 200 уже отправлен, поэтому сбой пачки сообщается последней строкой ответа;
+            // результаты пачки копятся в буфере, чтобы обрыв связи с сервером не оставил в ответе половину строки
+            results.reset();
+            String error;
+            try {
+                ResponseEntity<Object> result = importChunk(chunk, offset, userId, results);
+                error = result.getStatusCode().is2xxSuccessful() ? null : "server responded with " + result.getStatusCodeValue();
+            } catch (ResourceAccessException e) {
+                log.warn("Item import for userId={} aborted at line {}", userId, offset + 1, e);
+                error = "server unavailable";
+            }
+            if (error != null) {
+                out.write(objectMapper.writeValueAsBytes(new ItemImportErrorGateway(offset + 1, "Import aborted: " + error)));
+                out.write('\n');
+                out.flush();
+                return;
+            }
+            results.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private ResponseEntity<Object> importChunk(ByteArrayOutputStream chunk, long offset, Long userId, OutputStream out) {
+        return postAndCopy("/bulk?offset={offset}", userId, Map.of("offset", offset),
+                MediaType.APPLICATION_NDJSON, chunk.toByteArray(), out);
+    }
+
+    private int readChunk(BufferedReader reader, ByteArrayOutputStream chunk) throws IOException {
+        chunk.reset();
+        int lines = 0;
+        String line;
+        while (lines < importChunkSize && (line = reader.readLine()) != null) {
+            chunk.write(line.getBytes(StandardCharsets.UTF_8));
+            chunk.write('\n');
+            lines++;
+        }
+        return lines;
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsByUser(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> deleteItem(Long id, Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItem(Long id, Long userId) {
         return delete("/" + id, userId);
     }
 
-    public ResponseEntity<Object> updateItem(Long id, ItemDtoWithBookingsGateWay itemDTOWithBookingsGateWay, Long userId) {
+    public Mono<ResponseEntity<Object>> updateItem(Long id, ItemDtoWithBookingsGateWay itemDTOWithBookingsGateWay, Long userId) {
         return patch("/" + id, userId, itemDTOWithBookingsGateWay);
     }
 
-    public ResponseEntity<Object> search(String text, Long userId) {
+    public Mono<ResponseEntity<Object>> search(String text, Integer from, Integer size, Long userId) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size, Long userId) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/available?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(Long id, Long userId) {
-        return get("/" + id, userId);
+    // Карточку популярной вещи запрашивают пачками одновременно
+    public Mono<ResponseEntity<Object>> getItemById(Long id, Long userId) {
+        return getShared("/" + id, userId, null);
     }
 
-    public ResponseEntity addComment(Long itemId, Long userId, CommentDtoGateway commentDtoGateway) {
+    public Mono<ResponseEntity<Object>> addComment(Long itemId, Long userId, CommentDtoGateway commentDtoGateway) {
         return post("/" + itemId + "/comment", userId, commentDtoGateway);
     }
 }
@@ -2,16 +2,25 @@ package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDtoGateway;
 import ru.practicum.shareit.item.dto.ItemDtoGateway;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsGateWay;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Validated
@@ -27,51 +36,76 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody @Valid ItemDtoGateway item,
-                                             @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestBody @Valid ItemDtoGateway item,
+                                                   @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
         log.info("Create item with itemName={}, available={}, description={}, requestId={}, userId={}",
                 item.getName(), item.getAvailable(), item.getDescription(), item.getRequestId(), userId);
         return itemClient.createItem(item, userId);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(InputStream body,
+                            @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId,
+                            HttpServletResponse response) throws IOException {
+        log.info("Import items for userId={}", userId);
+        itemClient.importItems(body, userId, response);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComments(@PathVariable @Positive Long itemId,
-                                              @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId,
-                                              @RequestBody @Valid CommentDtoGateway commentDtoGateway) {
+    public Mono<ResponseEntity<Object>> addComments(@PathVariable @Positive Long itemId,
+                                                    @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId,
+                                                    @RequestBody @Valid CommentDtoGateway commentDtoGateway) {
         log.info("Add comment with itemId={}, userId={}, authorName={}, text={}",
                 itemId, userId, commentDtoGateway.getAuthorName(), commentDtoGateway.getText());
         return itemClient.addComment(itemId, userId, commentDtoGateway);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(@PathVariable @Positive Long id,
-                                              @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable @Positive Long id,
+                                                    @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
         log.info("Get item with itemId={}, userId={}", id, userId);
         return itemClient.getItemById(id, userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam(value = "text", defaultValue = "") String text, @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
-        log.info("Search item with text={}, userId={}", text, userId);
-        return itemClient.search(text, userId);
+    public Mono<ResponseEntity<Object>> search(@RequestParam(value = "text", defaultValue = "") String text,
+                                               @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                               @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                               @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+        log.info("Search item with text={}, from={}, size={}, userId={}", text, from, size, userId);
+        return itemClient.search(text, from, size, userId);
+    }
+
+    @GetMapping("/available")
+    public Mono<ResponseEntity<Object>> searchAvailable(@RequestParam(value = "text", defaultValue = "") String text,
+                                                        @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                        @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                        @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                        @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                        @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("End time must be after start time.");
+        }
+        log.info("Search available items with text={}, start={}, end={}, from={}, size={}, userId={}", text, start, end, from, size, userId);
+        return itemClient.searchAvailable(text, start, end, from, size, userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@PathVariable @Positive Long id, @RequestBody ItemDtoWithBookingsGateWay itemDTOWithBookingsGateWay,
-                                            @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable @Positive Long id, @RequestBody ItemDtoWithBookingsGateWay itemDTOWithBookingsGateWay,
+                                                   @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
         log.info("Update item with name={}, available={}, description={}, userId={}", itemDTOWithBookingsGateWay.getName(),
                 itemDTOWithBookingsGateWay.getAvailable(), itemDTOWithBookingsGateWay.getDescription(), userId);
         return itemClient.updateItem(id, itemDTOWithBookingsGateWay, userId);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@PathVariable @Positive Long id, @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItem(@PathVariable @Positive Long id, @RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
         log.info("Delete item with itemId={} by userId={}", id, userId);
         return itemClient.deleteItem(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUser(@RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getItemsByUser(@RequestHeader(name = "X-Sharer-User-Id", required = true) @Positive Long userId) {
         log.info("Get items by user={}", userId);
         return  itemClient.getItemsByUser(userId);
     }
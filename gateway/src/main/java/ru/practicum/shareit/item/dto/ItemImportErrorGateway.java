@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Последняя строка ответа импорта, если он прервался после начала ответа: строки с line и дальше не импортированы
+@Data
+@AllArgsConstructor
+public class ItemImportErrorGateway {
+    private Long line;
+    private String error;
+}
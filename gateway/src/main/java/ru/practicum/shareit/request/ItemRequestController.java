@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 
 import javax.validation.Valid;
@@ -26,29 +27,30 @@ public class ItemRequestController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> addRequest(@RequestBody @Valid ItemRequestDtoInput itemRequestDtoInput,
-                                              @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> addRequest(@RequestBody @Valid ItemRequestDtoInput itemRequestDtoInput,
+                                                   @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Add request with description={} by userId={}", itemRequestDtoInput.getDescription(), userId);
         return requestClient.saveRequest(itemRequestDtoInput, userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable("requestId") Long id, @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@PathVariable("requestId") Long id, @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Get request with id={} by userId={}", id, userId);
         return  requestClient.getRequestById(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequests(@RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getRequests(@RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Get requests with by userId={}", userId);
         return  requestClient.getRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequests(@RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                               @RequestParam(name = "size", defaultValue = "10") @PositiveOrZero Integer size,
-                                               @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
-        log.info("Get all requests from={} with size={}, from userId={}", from, size, userId);
-        return  requestClient.getAllRequests(from, size, userId);
+    public Mono<ResponseEntity<Object>> getRequests(@RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                    @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                    @RequestParam(name = "after", required = false) String after,
+                                                    @RequestHeader(name = "X-Sharer-User-Id") @Positive Long userId) {
+        log.info("Get all requests from={} with size={}, after={}, from userId={}", from, size, after, userId);
+        return  requestClient.getAllRequests(from, size, after, userId);
     }
 }
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,32 +22,42 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItServerRequestFactory,
+                         ObjectProvider<WebClient> shareItServerWebClient,
+                         SingleFlight singleFlight) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareItServerRequestFactory)
+                        .build(),
+                shareItServerWebClient.getIfAvailable(),
+                serverUrl + API_PREFIX,
+                singleFlight
         );
     }
 
-    public ResponseEntity<Object> saveRequest(ItemRequestDtoInput itemRequestDtoInput, Long userId) {
+    public Mono<ResponseEntity<Object>> saveRequest(ItemRequestDtoInput itemRequestDtoInput, Long userId) {
         return post("", userId, itemRequestDtoInput);
     }
 
-    public ResponseEntity<Object> getRequestById(Long id, Long userId) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getRequestById(Long id, Long userId) {
+        return getShared("/" + id, userId, null);
     }
 
-    public ResponseEntity<Object> getRequests(Long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getRequests(Long userId) {
+        return getShared("", userId, null);
     }
 
-    public ResponseEntity<Object> getAllRequests(Integer from, Integer size, Long userId) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    // Ленту запросов обновляют одновременно, поэтому чтения запросов склеиваются
+    public Mono<ResponseEntity<Object>> getAllRequests(Integer from, Integer size, String after, Long userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return getShared("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return getShared("/all?from={from}&size={size}&after={after}", userId, parameters);
     }
 }
\ No newline at end of file
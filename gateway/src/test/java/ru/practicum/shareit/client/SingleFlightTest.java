@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private static final Duration DELAY = Duration.ofMillis(200);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void execute_ConcurrentCallsShareOneUpstreamResponse() {
+        SingleFlight singleFlight = new SingleFlight(10, meterRegistry);
+
+        List<Object> bodies = Flux.range(0, 5)
+                .flatMap(i -> singleFlight.execute("/items/1|1", delayedOk()))
+                .map(ResponseEntity::getBody)
+                .collectList()
+                .block();
+
+        assertEquals(List.of(1, 1, 1, 1, 1), bodies);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, calls("leader"));
+        assertEquals(4, calls("coalesced"));
+        assertEquals(0, inFlight());
+
+        assertEquals(2, singleFlight.execute("/items/1|1", delayedOk()).block().getBody());
+        assertEquals(2, calls("leader"));
+    }
+
+    @Test
+    void execute_BypassesWhenTooManyKeysInFlight() {
+        SingleFlight singleFlight = new SingleFlight(1, meterRegistry);
+
+        List<ResponseEntity<Object>> responses = Flux.just("/items/1|1", "/items/2|1", "/items/1|1")
+                .flatMap(key -> singleFlight.execute(key, delayedOk()))
+                .collectList()
+                .block();
+
+        assertEquals(3, responses.size());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, calls("leader"));
+        assertEquals(1, calls("bypassed"));
+        assertEquals(1, calls("coalesced"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void execute_ErrorReachesEveryWaiterAndReleasesKey() {
+        SingleFlight singleFlight = new SingleFlight(10, meterRegistry);
+        Supplier<Mono<ResponseEntity<Object>>> failing = () -> Mono.delay(DELAY)
+                .doOnNext(tick -> upstreamCalls.incrementAndGet())
+                .then(Mono.error(new IllegalStateException("server unavailable")));
+
+        List<String> outcomes = Flux.range(0, 3)
+                .flatMap(i -> singleFlight.execute("/requests/1|1", failing)
+                        .map(response -> "ok")
+                        .onErrorResume(e -> Mono.just(e.getMessage())))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("server unavailable", "server unavailable", "server unavailable"), outcomes);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, calls("coalesced"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void execute_ZeroLimitDisablesCoalescing() {
+        SingleFlight singleFlight = new SingleFlight(0, meterRegistry);
+
+        Flux.range(0, 3)
+                .flatMap(i -> singleFlight.execute("/items/1|1", delayedOk()))
+                .blockLast();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(3, calls("bypassed"));
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> delayedOk() {
+        return () -> Mono.delay(DELAY).map(tick -> ResponseEntity.ok(upstreamCalls.incrementAndGet()));
+    }
+
+    private double calls(String result) {
+        return meterRegistry.get("gateway.single-flight.calls").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.single-flight.in-flight").gauge().value();
+    }
+}
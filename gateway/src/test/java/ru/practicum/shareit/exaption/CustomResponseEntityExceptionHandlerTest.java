@@ -0,0 +1,98 @@
+package ru.practicum.shareit.exaption;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CustomResponseEntityExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new CustomResponseEntityExceptionHandler())
+            .build();
+
+    @Test
+    void poolAcquireTimeout_ServiceUnavailable() throws Exception {
+        perform("/pool-timeout")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error", equalTo("Server unavailable")));
+    }
+
+    @Test
+    void unwrappedPoolAcquireTimeout_ServiceUnavailable() throws Exception {
+        perform("/pool-timeout-unwrapped").andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void connectionRefused_ServiceUnavailable() throws Exception {
+        perform("/refused").andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void responseTimeout_GatewayTimeout() throws Exception {
+        perform("/read-timeout")
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error", equalTo("Server did not respond in time")));
+    }
+
+    private ResultActions perform(String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    @RestController
+    static class FailingController {
+
+        // Так пул reactor-netty сообщает, что соединение не освободилось за acquire-timeout (PoolAcquireTimeoutException)
+        private static TimeoutException poolAcquireTimeout() {
+            return new TimeoutException("Pool#acquire(Mono) has been pending for more than the configured timeout of 10000ms");
+        }
+
+        @GetMapping("/pool-timeout")
+        Mono<ResponseEntity<Object>> poolTimeout() {
+            return Mono.error(requestException(poolAcquireTimeout()));
+        }
+
+        @GetMapping("/pool-timeout-unwrapped")
+        Mono<ResponseEntity<Object>> poolTimeoutUnwrapped() {
+            return Mono.error(poolAcquireTimeout());
+        }
+
+        @GetMapping("/refused")
+        Mono<ResponseEntity<Object>> refused() {
+            return Mono.error(requestException(new ConnectException("Connection refused")));
+        }
+
+        @GetMapping("/read-timeout")
+        Mono<ResponseEntity<Object>> readTimeout() {
+            return Mono.error(requestException(ReadTimeoutException.INSTANCE));
+        }
+
+        private static WebClientRequestException requestException(Throwable cause) {
+            return new WebClientRequestException(cause, HttpMethod.GET, URI.create("http://localhost:9090/items/1"),
+                    new HttpHeaders());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+// Тонкая обёртка над java.net.http: запросы к gateway с заголовком пользователя и телом в JSON
+final class ApiClient {
+
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final URI baseUrl;
+
+    static {
+        // По умолчанию клиент держит простаивающее соединение 20 минут, а Tomcat закрывает его намного раньше;
+        // GET клиент на таком соединении повторяет сам, а POST завершается ошибкой, которой нет на сервере
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", "10");
+        }
+    }
+
+    ApiClient(URI baseUrl, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    HttpRequest get(String path, long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    HttpRequest post(String path, Long userId, Object body) {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build();
+    }
+
+    HttpRequest patch(String path, long userId, Object body) {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build();
+    }
+
+    HttpRequest postNdjson(String path, long userId, List<?> lines) {
+        String body = lines.stream().map(this::toJson).collect(Collectors.joining("\n", "", "\n"));
+        return request(path, userId)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Для подготовки данных: ответ не из 2xx останавливает прогон, потому что сценарий без данных бессмыслен
+    CompletableFuture<JsonNode> sendForJson(HttpRequest request) {
+        return send(request).thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                        + response.statusCode() + ": " + response.body());
+            }
+            return readTree(response.body());
+        });
+    }
+
+    JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (userId != null) {
+            builder.header(USER_HEADER, userId.toString());
+        }
+        return builder;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
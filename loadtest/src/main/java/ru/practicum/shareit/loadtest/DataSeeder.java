@@ -0,0 +1,137 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+// Готовит данные через тот же API, что и сценарии Postman: пользователи, вещи пачками через /items/bulk,
+// бронирования, часть из которых владельцы подтверждают или отклоняют через /bookings/batch
+final class DataSeeder {
+
+    static final long SLOT_HOURS = 2;
+
+    private static final int PARALLELISM = 32;
+    private static final int BATCH_SIZE = 1000;
+
+    private final ApiClient client;
+    private final LoadTestConfig config;
+    private final Random random;
+
+    DataSeeder(ApiClient client, LoadTestConfig config) {
+        this.client = client;
+        this.config = config;
+        this.random = new Random(config.getSeed());
+    }
+
+    DataSet seed() {
+        long runId = System.currentTimeMillis();
+        List<Long> userIds = inParallel(config.getUsers(), i -> client
+                .sendForJson(client.post("/users", null, Map.of(
+                        "name", "Load user " + i,
+                        "email", "load-" + runId + "-" + i + "@shareit.test")))
+                .thenApply(user -> user.get("id").asLong()));
+        List<Long> ownerIds = userIds.subList(0, userIds.size() / 2);
+        List<Long> bookerIds = userIds.subList(userIds.size() / 2, userIds.size());
+        System.out.printf("Created %d users: %d owners, %d bookers%n", userIds.size(), ownerIds.size(), bookerIds.size());
+
+        List<DataSet.Item> items = createItems(ownerIds);
+        System.out.printf("Created %d items%n", items.size());
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        long slots = (config.getBookings() + items.size() - 1) / items.size();
+        int decided = createBookings(items, bookerIds, base);
+        System.out.printf("Created %d bookings, %d of them approved or rejected%n", config.getBookings(), decided);
+
+        return new DataSet(userIds, ownerIds, bookerIds, items, base.plusHours(SLOT_HOURS * slots));
+    }
+
+    private List<DataSet.Item> createItems(List<Long> ownerIds) {
+        Map<Long, List<Map<String, Object>>> byOwner = new LinkedHashMap<>();
+        for (int i = 0; i < config.getItems(); i++) {
+            String word = DataSet.WORDS.get(random.nextInt(DataSet.WORDS.size()));
+            String other = DataSet.WORDS.get(random.nextInt(DataSet.WORDS.size()));
+            byOwner.computeIfAbsent(ownerIds.get(i % ownerIds.size()), id -> new ArrayList<>())
+                    .add(Map.of("name", word + " " + i, "description", "Для нагрузки: " + word + " и " + other,
+                            "available", true));
+        }
+        List<Map.Entry<Long, List<Map<String, Object>>>> owners = new ArrayList<>(byOwner.entrySet());
+        return inParallel(owners.size(), i -> importItems(owners.get(i).getKey(), owners.get(i).getValue()))
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<List<DataSet.Item>> importItems(long ownerId, List<Map<String, Object>> lines) {
+        return client.send(client.postNdjson("/items/bulk", ownerId, lines)).thenApply(response -> {
+            List<DataSet.Item> items = new ArrayList<>();
+            for (String line : response.body().split("\n")) {
+                JsonNode result = client.readTree(line);
+                if (!result.hasNonNull("id")) {
+                    throw new IllegalStateException("Item import failed for owner " + ownerId + ": " + line);
+                }
+                items.add(new DataSet.Item(result.get("id").asLong(), ownerId));
+            }
+            return items;
+        });
+    }
+
+    // Бронирования одной вещи идут подряд непересекающимися интервалами, поэтому ни одно не отклоняется из-за пересечения
+    private int createBookings(List<DataSet.Item> items, List<Long> bookerIds, LocalDateTime base) {
+        DateTimeFormatter format = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < config.getBookings(); i++) {
+            bookers.add(bookerIds.get(random.nextInt(bookerIds.size())));
+        }
+        List<Long> bookingIds = inParallel(config.getBookings(), i -> {
+            DataSet.Item item = items.get(i % items.size());
+            LocalDateTime start = base.plusHours(SLOT_HOURS * (i / items.size()));
+            return client.sendForJson(client.post("/bookings", bookers.get(i), Map.of(
+                            "itemId", item.getId(),
+                            "start", start.format(format),
+                            "end", start.plusHours(1).format(format))))
+                    .thenApply(booking -> booking.get("id").asLong());
+        });
+
+        // Четверть подтверждена, четверть отклонена, остальные ждут решения, чтобы у фильтров по state были данные
+        Map<Long, List<Map<String, Object>>> decisions = new HashMap<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            if (i % 4 < 2) {
+                decisions.computeIfAbsent(items.get(i % items.size()).getOwnerId(), id -> new ArrayList<>())
+                        .add(Map.of("bookingId", bookingIds.get(i), "approved", i % 4 == 0));
+            }
+        }
+        List<Map.Entry<Long, List<Map<String, Object>>>> batches = new ArrayList<>();
+        decisions.forEach((ownerId, list) -> {
+            for (int from = 0; from < list.size(); from += BATCH_SIZE) {
+                batches.add(Map.entry(ownerId, list.subList(from, Math.min(from + BATCH_SIZE, list.size()))));
+            }
+        });
+        inParallel(batches.size(), i -> client
+                .sendForJson(client.patch("/bookings/batch", batches.get(i).getKey(), batches.get(i).getValue())));
+        return decisions.values().stream().mapToInt(List::size).sum();
+    }
+
+    // Не больше PARALLELISM запросов одновременно, результаты в порядке индексов
+    private static <T> List<T> inParallel(int count, IntFunction<CompletableFuture<T>> task) {
+        List<T> results = new ArrayList<>(count);
+        for (int from = 0; from < count; from += PARALLELISM) {
+            List<CompletableFuture<T>> window = new ArrayList<>();
+            for (int i = from; i < Math.min(from + PARALLELISM, count); i++) {
+                window.add(task.apply(i));
+            }
+            window.forEach(future -> results.add(future.join()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Данные, созданные при подготовке: из них сценарий выбирает пользователей, вещи и слова для поиска
+final class DataSet {
+
+    static final List<String> WORDS = List.of("дрель", "отвертка", "аккумуляторная", "пила", "лестница",
+            "палатка", "велосипед", "перфоратор", "шуруповерт", "фотоаппарат");
+
+    private final List<Long> userIds;
+    private final List<Long> ownerIds;
+    private final List<Long> bookerIds;
+    private final List<Item> items;
+    // Бронирования, создаваемые во время прогона, получают непересекающиеся интервалы после подготовленных
+    private final LocalDateTime freeFrom;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    DataSet(List<Long> userIds, List<Long> ownerIds, List<Long> bookerIds, List<Item> items, LocalDateTime freeFrom) {
+        this.userIds = userIds;
+        this.ownerIds = ownerIds;
+        this.bookerIds = bookerIds;
+        this.items = items;
+        this.freeFrom = freeFrom;
+    }
+
+    List<Long> getUserIds() {
+        return userIds;
+    }
+
+    List<Long> getOwnerIds() {
+        return ownerIds;
+    }
+
+    List<Long> getBookerIds() {
+        return bookerIds;
+    }
+
+    List<Item> getItems() {
+        return items;
+    }
+
+    LocalDateTime nextFreeSlot() {
+        return freeFrom.plusHours(DataSeeder.SLOT_HOURS * nextSlot.getAndIncrement());
+    }
+
+    static final class Item {
+        private final long id;
+        private final long ownerId;
+
+        Item(long id, long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        long getOwnerId() {
+            return ownerId;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+// Операции нагрузочного сценария; ключ используется в параметре --mix и в именах файлов отчёта
+enum Endpoint {
+    OWNER_BOOKINGS("owner-bookings", "GET /bookings/owner", 30),
+    BOOKER_BOOKINGS("booker-bookings", "GET /bookings", 15),
+    OWNER_ITEMS("owner-items", "GET /items", 20),
+    ITEM("item", "GET /items/{id}", 15),
+    SEARCH("search", "GET /items/search", 15),
+    CREATE_BOOKING("create-booking", "POST /bookings", 5);
+
+    private final String key;
+    private final String label;
+    private final int defaultWeight;
+
+    Endpoint(String key, String label, int defaultWeight) {
+        this.key = key;
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    static Endpoint byKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint in mix: " + key));
+    }
+}
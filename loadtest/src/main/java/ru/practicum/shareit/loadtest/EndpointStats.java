@@ -0,0 +1,47 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Задержки одной операции в микросекундах; ответы вне 2xx и сетевые ошибки считаются отдельно, но в гистограмму тоже попадают
+final class EndpointStats {
+
+    private final Histogram histogram = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    // cause - статус ответа или класс исключения клиента, null для успешного ответа
+    void record(long latencyMicros, String cause) {
+        histogram.recordValue(Math.max(latencyMicros, 0));
+        if (cause != null) {
+            errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+        }
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    Histogram getHistogram() {
+        return histogram;
+    }
+
+    long getErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    Map<String, Long> getErrorsByCause() {
+        Map<String, Long> byCause = new TreeMap<>();
+        errors.forEach((cause, count) -> byCause.put(cause, count.sum()));
+        return byCause;
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+}
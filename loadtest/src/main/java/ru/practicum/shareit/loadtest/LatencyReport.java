@@ -0,0 +1,69 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+// Сводная таблица по операциям в миллисекундах и полные распределения HdrHistogram в файлах <операция>.hgrm
+final class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final String ROW = "%-20s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n";
+
+    private final Map<Endpoint, EndpointStats> stats;
+    private final Duration duration;
+
+    LatencyReport(Map<Endpoint, EndpointStats> stats, Duration duration) {
+        this.stats = stats;
+        this.duration = duration;
+    }
+
+    void print(PrintStream out) {
+        out.printf(ROW, "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                "max ms");
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            all.add(endpointStats.getHistogram());
+            errors += endpointStats.getErrors();
+            dropped += endpointStats.getDropped();
+            printRow(out, entry.getKey().getLabel(), endpointStats.getHistogram(), endpointStats.getErrors(),
+                    endpointStats.getDropped());
+        }
+        printRow(out, "total", all, errors, dropped);
+        stats.forEach((endpoint, endpointStats) -> endpointStats.getErrorsByCause().forEach((cause, count) ->
+                out.printf("errors of %s: %s x %d%n", endpoint.getLabel(), cause, count)));
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Path file = directory.resolve(entry.getKey().getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+                entry.getValue().getHistogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String label, Histogram histogram, long errors, long dropped) {
+        out.printf(ROW, label, histogram.getTotalCount(), errors, dropped,
+                String.format("%.1f", histogram.getTotalCount() / (double) duration.getSeconds()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / MICROS_PER_MILLI);
+    }
+}
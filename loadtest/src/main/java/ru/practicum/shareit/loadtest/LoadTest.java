@@ -0,0 +1,44 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Нагрузочный прогон против уже запущенных gateway и server:
+// java -jar loadtest/target/loadtest.jar --users=100 --items=1000 --bookings=5000 --rate=200 --duration=60 --out=loadtest-result
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ApiClient client = new ApiClient(config.getBaseUrl(), executor);
+            DataSet dataSet = new DataSeeder(client, config).seed();
+            Scenario scenario = new Scenario(client, dataSet, config.getMix());
+            OpenLoopRunner runner = new OpenLoopRunner(client, config);
+            Random random = new Random(config.getSeed());
+
+            if (!config.getWarmup().isZero()) {
+                System.out.printf("Warming up for %d s at %d req/s%n", config.getWarmup().getSeconds(), config.getRate());
+                runner.run(scenario, config.getWarmup(), random);
+            }
+            Duration duration = config.getDuration();
+            System.out.printf("Measuring for %d s at %d req/s%n", duration.getSeconds(), config.getRate());
+            Map<Endpoint, EndpointStats> stats = runner.run(scenario, duration, random);
+
+            LatencyReport report = new LatencyReport(stats, duration);
+            report.print(System.out);
+            if (config.getOut() != null) {
+                report.write(config.getOut());
+                System.out.println("Latency distributions written to " + config.getOut().toAbsolutePath());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Параметры прогона в виде --key=value; всё, что не задано, берётся по умолчанию
+final class LoadTestConfig {
+
+    private static final Set<String> KEYS = Set.of("base-url", "users", "items", "bookings", "rate", "warmup",
+            "duration", "max-in-flight", "seed", "mix", "out");
+
+    private final URI baseUrl;
+    private final int users;
+    private final int items;
+    private final int bookings;
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final long seed;
+    private final Map<Endpoint, Integer> mix;
+    private final Path out;
+
+    private LoadTestConfig(Map<String, String> args) {
+        baseUrl = URI.create(args.getOrDefault("base-url", "http://localhost:8080"));
+        users = positive(args, "users", 100);
+        items = positive(args, "items", 1000);
+        bookings = positive(args, "bookings", 5000);
+        rate = positive(args, "rate", 200);
+        warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        duration = Duration.ofSeconds(positive(args, "duration", 60));
+        maxInFlight = positive(args, "max-in-flight", 512);
+        seed = Long.parseLong(args.getOrDefault("seed", "42"));
+        mix = parseMix(args.get("mix"));
+        out = args.containsKey("out") ? Path.of(args.get("out")) : null;
+        if (users < 2) {
+            throw new IllegalArgumentException("At least two users are required: owners cannot book their own items.");
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup must not be negative.");
+        }
+        if (rate > 1_000_000) {
+            throw new IllegalArgumentException("Rate is limited to 1000000 requests per second.");
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, separator);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown parameter: " + key + ", expected one of " + KEYS);
+            }
+            values.put(key, arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getItems() {
+        return items;
+    }
+
+    int getBookings() {
+        return bookings;
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    Path getOut() {
+        return out;
+    }
+
+    // Формат: owner-bookings:50,search:50; не перечисленные операции в прогоне не участвуют
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        if (value == null) {
+            for (Endpoint endpoint : Endpoint.values()) {
+                mix.put(endpoint, endpoint.getDefaultWeight());
+            }
+            return mix;
+        }
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in mix, got: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + part);
+            }
+            mix.put(Endpoint.byKey(pair[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix must contain at least one positive weight.");
+        }
+        return mix;
+    }
+
+    private static int positive(Map<String, String> args, String key, int defaultValue) {
+        int value = args.containsKey(key) ? Integer.parseInt(args.get(key)) : defaultValue;
+        if (value <= 0) {
+            throw new IllegalArgumentException(key + " must be positive.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Открытая модель нагрузки: запросы уходят по расписанию с заданной частотой, не дожидаясь ответов на предыдущие.
+// Задержка считается от запланированного момента отправки, поэтому очередь перед медленным сервером видна в перцентилях
+final class OpenLoopRunner {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final ApiClient client;
+    private final LoadTestConfig config;
+
+    OpenLoopRunner(ApiClient client, LoadTestConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    Map<Endpoint, EndpointStats> run(Scenario scenario, Duration duration, Random random) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : config.getMix().keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        // Ограничение на число запросов в полёте защищает генератор от исчерпания памяти, когда сервер уже не справляется;
+        // не отправленные из-за него запросы считаются в dropped, и любое ненулевое значение означает, что потолок пройден
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        long start = System.nanoTime();
+        long total = duration.getSeconds() * config.getRate();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * TimeUnit.SECONDS.toNanos(1) / config.getRate();
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario.Operation operation = scenario.next(random);
+            EndpointStats endpointStats = stats.get(operation.getEndpoint());
+            if (!inFlight.tryAcquire()) {
+                endpointStats.drop();
+                continue;
+            }
+            client.send(operation.getRequest()).whenComplete((response, error) -> {
+                long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                endpointStats.record(latency, error != null ? cause(error)
+                        : response.statusCode() / 100 == 2 ? null : "HTTP " + response.statusCode());
+                inFlight.release();
+            });
+        }
+        if (!inFlight.tryAcquire(config.getMaxInFlight(), DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            System.out.println("Some requests did not complete within " + DRAIN_TIMEOUT_SECONDS + " seconds after the run");
+        }
+        return stats;
+    }
+
+    private static String cause(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getClass().getSimpleName() + (cause.getMessage() == null ? "" : ": " + cause.getMessage());
+    }
+}
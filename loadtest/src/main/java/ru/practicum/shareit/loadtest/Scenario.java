@@ -0,0 +1,107 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Запросы из сценариев postman/sprint.json, которые проходят на подготовленных данных; операция выбирается по весам из --mix
+final class Scenario {
+
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+    private static final int PAGE_SIZE = 10;
+
+    private final ApiClient client;
+    private final DataSet dataSet;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    Scenario(ApiClient client, DataSet dataSet, Map<Endpoint, Integer> mix) {
+        this.client = client;
+        this.dataSet = dataSet;
+        this.endpoints = mix.keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Operation next(Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= point) {
+            index++;
+        }
+        Endpoint endpoint = endpoints[index];
+        return new Operation(endpoint, request(endpoint, random));
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        switch (endpoint) {
+            case OWNER_BOOKINGS:
+                return client.get("/bookings/owner?state=" + any(STATES, random) + "&from=0&size=" + PAGE_SIZE,
+                        any(dataSet.getOwnerIds(), random));
+            case BOOKER_BOOKINGS:
+                return client.get("/bookings?state=" + any(STATES, random) + "&from=0&size=" + PAGE_SIZE,
+                        any(dataSet.getBookerIds(), random));
+            case OWNER_ITEMS:
+                return client.get("/items", any(dataSet.getOwnerIds(), random));
+            case ITEM:
+                DataSet.Item item = any(dataSet.getItems(), random);
+                // Владелец видит вещь с бронированиями, остальные без них, как в сценариях Postman
+                long viewer = random.nextBoolean() ? item.getOwnerId() : any(dataSet.getUserIds(), random);
+                return client.get("/items/" + item.getId(), viewer);
+            case SEARCH:
+                return client.get("/items/search?text=" + URLEncoder.encode(searchText(random), StandardCharsets.UTF_8),
+                        any(dataSet.getUserIds(), random));
+            case CREATE_BOOKING:
+                DataSet.Item booked = any(dataSet.getItems(), random);
+                LocalDateTime start = dataSet.nextFreeSlot();
+                return client.post("/bookings", any(dataSet.getBookerIds(), random), Map.of(
+                        "itemId", booked.getId(),
+                        "start", start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        "end", start.plusHours(1).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+            default:
+                throw new IllegalStateException("Unsupported endpoint: " + endpoint);
+        }
+    }
+
+    // Начало слова в случайном регистре, как «дРелЬ» и «оТверТ» в сценариях поиска
+    private static String searchText(Random random) {
+        String word = any(DataSet.WORDS, random);
+        String prefix = word.substring(0, 3 + random.nextInt(word.length() - 2));
+        StringBuilder text = new StringBuilder(prefix.length());
+        for (char c : prefix.toCharArray()) {
+            text.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return text.toString();
+    }
+
+    private static <T> T any(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    static final class Operation {
+        private final Endpoint endpoint;
+        private final HttpRequest request;
+
+        Operation(Endpoint endpoint, HttpRequest request) {
+            this.endpoint = endpoint;
+            this.request = request;
+        }
+
+        Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        HttpRequest getRequest() {
+            return request;
+        }
+    }
+}
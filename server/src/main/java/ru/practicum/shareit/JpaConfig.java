@@ -1,6 +1,15 @@
 package ru.practicum.shareit;
 
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -8,14 +17,29 @@ import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.ObjectUtils;
+import ru.practicum.shareit.querycount.QueryCountingSessionListener;
 
+import javax.cache.CacheManager;
+import javax.cache.Caching;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableTransactionManagement
 public class JpaConfig {
 
+    public static final String USERS_REGION = "users";
+    public static final String ITEMS_REGION = "items";
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
     @Autowired
     private DataSource dataSource;
 
@@ -23,18 +47,71 @@ public class JpaConfig {
     private JpaVendorAdapter jpaVendorAdapter;
 
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(
+            CacheManager hibernateCacheManager,
+            @Value("${shareit.jpa.batch-size:50}") int batchSize,
+            @Value("${shareit.jpa-cache.statistics:true}") boolean statistics) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
         em.setJpaVendorAdapter(jpaVendorAdapter);
         em.setPackagesToScan("ru.practicum.shareit"); // Замените на ваш пакет с сущностями JPA
+        em.setSharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+        properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+        // Со статистикой Hibernate по умолчанию пишет в INFO блок "Session Metrics" на каждую сессию; счётчики остаются в Statistics
+        properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        // Схему создают миграции Flyway, Hibernate только сверяет с ней сущности
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "validate");
+        // id берутся из последовательностей заранее, поэтому вставки и обновления уходят пачками
+        properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+        properties.put(AvailableSettings.ORDER_INSERTS, true);
+        properties.put(AvailableSettings.ORDER_UPDATES, true);
+        properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        // Число и время запросов каждого HTTP-запроса для заголовков X-Query-Count/X-Query-Time и метрик
+        properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryCountingSessionListener.class.getName());
+        em.setJpaPropertyMap(properties);
         return em;
     }
 
+    // Кэш второго уровня Hibernate: регионы создаются здесь, чтобы размеры и TTL задавались через application.properties
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${shareit.jpa-cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${shareit.jpa-cache.users.ttl:PT10M}") Duration usersTtl,
+            @Value("${shareit.jpa-cache.items.max-size:10000}") long itemsMaxSize,
+            @Value("${shareit.jpa-cache.items.ttl:PT10M}") Duration itemsTtl,
+            @Value("${shareit.jpa-cache.query-results.max-size:1000}") long queryResultsMaxSize,
+            @Value("${shareit.jpa-cache.query-results.ttl:PT5M}") Duration queryResultsTtl) {
+        Map<String, CacheConfiguration<?, ?>> caches = new HashMap<>();
+        caches.put(USERS_REGION, region(usersMaxSize, usersTtl));
+        caches.put(ITEMS_REGION, region(itemsMaxSize, itemsTtl));
+        caches.put(QUERY_RESULTS_REGION, region(queryResultsMaxSize, queryResultsTtl));
+        // Метки времени изменения таблиц не должны вытесняться раньше результатов запросов, иначе те станут невалидными
+        caches.put(UPDATE_TIMESTAMPS_REGION, CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+                .withExpiry(ExpiryPolicyBuilder.noExpiration())
+                .build());
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("shareit:hibernate:" + ObjectUtils.getIdentityHexString(this)),
+                new DefaultConfiguration(caches, getClass().getClassLoader()));
+    }
+
     @Bean
     public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
         JpaTransactionManager transactionManager = new JpaTransactionManager();
         transactionManager.setEntityManagerFactory(entityManagerFactory);
         return transactionManager;
     }
-}
\ No newline at end of file
+
+    private static CacheConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxSize))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+    }
+}
@@ -1,21 +1,32 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingExportService bookingExportService) {
         this.bookingService = bookingService;
+        this.bookingExportService = bookingExportService;
     }
 
     @PostMapping
@@ -28,23 +39,49 @@ public class BookingController {
         return bookingService.editBookingStatus(bookingId, approved, ownerId);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResult> editBookingStatuses(@RequestBody List<BookingDecision> decisions, @RequestHeader(name = "X-Sharer-User-Id") Long ownerId) {
+        return bookingService.editBookingStatuses(decisions, ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoOutput getBooking(@PathVariable("bookingId") Long bookingId, @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
         return  bookingService.getBooking(bookingId, userId);
     }
 
     @GetMapping()
-    public List<BookingDtoOutput> getBookingsByUserId(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
-                                                      @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
-                                                      @RequestParam(required = false, defaultValue = "ALL") String state, @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        return bookingService.getBookingsByUserId(state, userId, from, size);
+    public ResponseEntity<List<BookingDtoOutput>> getBookingsByUserId(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+                                                                      @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
+                                                                      @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                      @RequestParam(name = "after", required = false) String after,
+                                                                      @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return withNextCursor(bookingService.getBookingsByUserId(state, userId, from, size, BookingCursor.parse(after)), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getBookingsByOwnerId(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
-                                                       @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
-                                                       @RequestParam(required = false, defaultValue = "ALL") String state,
-                                                       @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        return bookingService.getBookingsByOwnerId(state, userId, from, size);
+    public ResponseEntity<List<BookingDtoOutput>> getBookingsByOwnerId(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+                                                                       @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
+                                                                       @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                       @RequestParam(name = "after", required = false) String after,
+                                                                       @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        return withNextCursor(bookingService.getBookingsByOwnerId(state, userId, from, size, BookingCursor.parse(after)), size);
+    }
+
+    // Ответ пишется в поток синхронно, чтобы длинная выгрузка не упиралась в таймаут асинхронных запросов
+    @GetMapping("/owner/export")
+    public void exportBookingsByOwnerId(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                        HttpServletResponse response) throws IOException {
+        bookingExportService.checkOwner(userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        bookingExportService.exportBookingsByOwnerId(userId, response.getOutputStream());
+    }
+
+    private ResponseEntity<List<BookingDtoOutput>> withNextCursor(List<BookingDtoOutput> bookings, Integer size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).toString())
+                .body(bookings);
     }
 }
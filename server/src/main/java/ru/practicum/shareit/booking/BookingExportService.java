@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.exaption.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Выгрузка всех бронирований владельца в NDJSON: бронирования читаются курсором и пишутся в ответ по одному,
+// поэтому память не зависит от числа строк
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingExportService {
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public void checkOwner(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found.");
+        }
+    }
+
+    // Курсор живёт только внутри транзакции
+    @Transactional(readOnly = true)
+    public void exportBookingsByOwnerId(Long userId, OutputStream out) throws IOException {
+        try (Stream<BookingDtoOutput> bookings = bookingRepository.streamByItemOwnerId(userId)) {
+            Iterator<BookingDtoOutput> iterator = bookings.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.exaption.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Индекс ожидающих и подтверждённых бронирований по вещам для проверки пересечений без запроса в БД
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+
+    private static final int STRIPES = 64;
+    // Размер порции вещей в одном IN-запросе: держит число параметров далеко от предела драйвера (32767 у PostgreSQL)
+    static final int LOAD_CHUNK = 1000;
+    private static final Set<BookingStatus> ACTIVE = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemBookings> items = new ConcurrentHashMap<>();
+    private final Lock[] locks = new Lock[STRIPES];
+
+    @Autowired
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Вещи, которые уже подгрузились лениво, не перезаписываются: их состояние свежее снимка
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<Long, List<BookingPeriod>> periods = bookingRepository.findPeriods(ACTIVE, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        periods.forEach(this::putIfAbsent);
+        log.info("Booking interval index warmed up: {} items", periods.size());
+    }
+
+    // Проверка и сохранение идут под блокировкой вещи, поэтому два пересекающихся бронирования не пройдут одновременно
+    public Booking book(Long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> save) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemBookings bookings = load(itemId);
+            bookings.removeEnded(LocalDateTime.now());
+            if (bookings.waiting.overlaps(start, end) || bookings.approved.overlaps(start, end)) {
+                throw new BadRequestException("Item already booked for this time.");
+            }
+            Booking booking = save.get();
+            bookings.put(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+            return booking;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void update(Booking booking) {
+        update(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    public void update(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            load(itemId).put(bookingId, start, end, status);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Вещи без подтверждённых бронирований, пересекающихся с [start, end), в порядке itemIds: первые from свободных пропускаются,
+    // возвращается не больше size. Кандидаты проверяются порциями по LOAD_CHUNK, недостающие вещи порции догружаются одним запросом
+    public List<Long> findFree(List<Long> itemIds, LocalDateTime start, LocalDateTime end, long from, int size) {
+        List<Long> free = new ArrayList<>();
+        long skip = from;
+        for (int i = 0; i < itemIds.size() && free.size() < size; i += LOAD_CHUNK) {
+            List<Long> chunk = itemIds.subList(i, Math.min(i + LOAD_CHUNK, itemIds.size()));
+            loadMissing(chunk);
+            for (Long itemId : chunk) {
+                if (!isFree(itemId, start, end)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (free.size() < size) {
+                    free.add(itemId);
+                }
+            }
+        }
+        return free;
+    }
+
+    private void loadMissing(List<Long> itemIds) {
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !items.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<BookingPeriod>> periods = bookingRepository.findPeriodsByItemIdIn(missing, ACTIVE, LocalDateTime.now())
+                .stream()
+                .collect(Collectors.groupingBy(BookingPeriod::getItemId));
+        missing.forEach(itemId -> putIfAbsent(itemId, periods.getOrDefault(itemId, Collections.emptyList())));
+    }
+
+    // Вещь могли удалить (remove) между отбором кандидатов и проверкой: такую вещь в выдачу не берём
+    private boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemBookings bookings = items.get(itemId);
+            if (bookings == null) {
+                return false;
+            }
+            bookings.removeEnded(LocalDateTime.now());
+            return !bookings.approved.overlaps(start, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Удалённая вещь больше не бронируется, её интервалы не нужны
+    public void remove(Long itemId) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            items.remove(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Вызывается под блокировкой вещи, поэтому одну вещь параллельно не загрузят; запрос в БД идёт вне computeIfAbsent,
+    // чтобы не держать блокировку сегмента ConcurrentHashMap, общую с другими вещами
+    private ItemBookings load(Long itemId) {
+        ItemBookings bookings = items.get(itemId);
+        if (bookings != null) {
+            return bookings;
+        }
+        ItemBookings loaded = ItemBookings.of(bookingRepository.findPeriodsByItemIdIn(List.of(itemId), ACTIVE, LocalDateTime.now()));
+        items.put(itemId, loaded);
+        return loaded;
+    }
+
+    private void putIfAbsent(Long itemId, List<BookingPeriod> periods) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            items.putIfAbsent(itemId, ItemBookings.of(periods));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+
+    private static class ItemBookings {
+        private final BookingIntervalTree waiting = new BookingIntervalTree();
+        private final BookingIntervalTree approved = new BookingIntervalTree();
+
+        private static ItemBookings of(List<BookingPeriod> periods) {
+            ItemBookings bookings = new ItemBookings();
+            periods.forEach(period -> bookings.put(period.getId(), period.getStart(), period.getEnd(), period.getStatus()));
+            return bookings;
+        }
+
+        private void put(Long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+            removeEnded(LocalDateTime.now());
+            waiting.remove(bookingId);
+            approved.remove(bookingId);
+            if (status == BookingStatus.WAITING) {
+                waiting.add(bookingId, start, end);
+            } else if (status == BookingStatus.APPROVED) {
+                approved.add(bookingId, start, end);
+            }
+        }
+
+        private void removeEnded(LocalDateTime now) {
+            waiting.removeEnded(now);
+            approved.removeEnded(now);
+        }
+    }
+}
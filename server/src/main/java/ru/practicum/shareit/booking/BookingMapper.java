@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookerSummary;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.ItemSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -20,8 +22,8 @@ public class BookingMapper {
     public BookingDtoOutput bookingToBookingDtoOutput(Booking booking) {
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
         bookingDtoOutput.setId(booking.getId());
-        bookingDtoOutput.setItem(booking.getItem());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setEnd(booking.getEnd());
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setStatus(booking.getStatus());
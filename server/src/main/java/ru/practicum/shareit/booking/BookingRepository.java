@@ -1,17 +1,144 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
 
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Строки списков бронирований собираются из столбцов: бронирующий берётся из внешнего ключа,
+    // вещь даёт только название, пользователи и владелец не читаются вовсе
+    String BOOKING_ROW = "select new ru.practicum.shareit.booking.dto.BookingDtoOutput(booking.id, booking.start, "
+            + " booking.end, booking.status, item.id, item.name, booking.booker.id) "
+            + " from Booking booking join booking.item item ";
+
+    String OF_BOOKER = BOOKING_ROW + " where booking.booker.id = :userId ";
+
+    String OF_OWNER = BOOKING_ROW + " where item.owner.id = :userId ";
+
+    String NEWEST_FIRST = " order by booking.start desc, booking.id desc";
+
+    String AFTER_CURSOR = " and (booking.start < :start or (booking.start = :start and booking.id < :id)) "
+            + NEWEST_FIRST;
+
+    // Связи бронирования ленивые; для ответа по одному бронированию вещь читается тем же запросом,
+    // а бронирующему и владельцу достаточно внешних ключей
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long id);
+
     List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
 
+    @Query(OF_BOOKER + NEWEST_FIRST)
+    List<BookingDtoOutput> findByBookerId(@Param("userId") Long bookerId, Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.start < :now and booking.end > :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findCurrentByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.end < :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findPastByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.start > :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findFutureByBookerId(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.status = :status " + NEWEST_FIRST)
+    List<BookingDtoOutput> findByBookerIdAndStatus(@Param("userId") Long bookerId,
+                                                   @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(OF_OWNER + NEWEST_FIRST)
+    List<BookingDtoOutput> findByItemOwnerId(@Param("userId") Long ownerId, Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.start < :now and booking.end > :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findCurrentByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.end < :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findPastByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.start > :now " + NEWEST_FIRST)
+    List<BookingDtoOutput> findFutureByItemOwnerId(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.status = :status " + NEWEST_FIRST)
+    List<BookingDtoOutput> findByItemOwnerIdAndStatus(@Param("userId") Long ownerId,
+                                                      @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(OF_BOOKER + AFTER_CURSOR)
+    List<BookingDtoOutput> findByBookerIdAfter(@Param("userId") Long bookerId, @Param("start") LocalDateTime start,
+                                               @Param("id") Long id, Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.start < :now and booking.end > :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findCurrentByBookerIdAfter(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                      @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.end < :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findPastByBookerIdAfter(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                   @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                   Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.start > :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findFutureByBookerIdAfter(@Param("userId") Long bookerId, @Param("now") LocalDateTime now,
+                                                     @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                     Pageable pageable);
+
+    @Query(OF_BOOKER + " and booking.status = :status " + AFTER_CURSOR)
+    List<BookingDtoOutput> findByBookerIdAndStatusAfter(@Param("userId") Long bookerId,
+                                                        @Param("status") BookingStatus status,
+                                                        @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                        Pageable pageable);
+
+    @Query(OF_OWNER + AFTER_CURSOR)
+    List<BookingDtoOutput> findByItemOwnerIdAfter(@Param("userId") Long ownerId, @Param("start") LocalDateTime start,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.start < :now and booking.end > :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findCurrentByItemOwnerIdAfter(@Param("userId") Long ownerId,
+                                                         @Param("now") LocalDateTime now,
+                                                         @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                         Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.end < :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findPastByItemOwnerIdAfter(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                      @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                      Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.start > :now " + AFTER_CURSOR)
+    List<BookingDtoOutput> findFutureByItemOwnerIdAfter(@Param("userId") Long ownerId, @Param("now") LocalDateTime now,
+                                                        @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                        Pageable pageable);
+
+    @Query(OF_OWNER + " and booking.status = :status " + AFTER_CURSOR)
+    List<BookingDtoOutput> findByItemOwnerIdAndStatusAfter(@Param("userId") Long ownerId,
+                                                           @Param("status") BookingStatus status,
+                                                           @Param("start") LocalDateTime start, @Param("id") Long id,
+                                                           Pageable pageable);
+
     @Query("select booking "
             + " from Booking booking "
             + " where booking.start < CURRENT_TIMESTAMP "
@@ -33,4 +160,68 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
     List<Booking> findBookingsNext(@Param("ids") Long ids,
                                    @Param("userId") Long userId,
                                    Pageable pageable);
-}
\ No newline at end of file
+
+    // Последнее и следующее подтверждённое бронирование по каждой вещи владельца одним запросом
+    @Query(value = "select t.id as \"id\", t.booker_id as \"bookerId\", t.item_id as \"itemId\", t.next as \"next\" "
+            + " from (select b.id, b.booker_id, b.item_id, b.start_time > :now as next, "
+            + "       row_number() over (partition by b.item_id, b.start_time > :now "
+            + "                          order by case when b.start_time > :now then b.start_time end asc, "
+            + "                                   b.start_time desc) as rn "
+            + "       from booking b join items i on i.id = b.item_id "
+            + "       where i.user_id = :ownerId and b.status = 'APPROVED' and b.start_time <> :now) t "
+            + " where t.rn = 1", nativeQuery = true)
+    List<ItemBookingSummary> findLastAndNextByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query("select booking.id as id, booking.item.id as itemId, booking.start as start, booking.end as end, "
+            + " booking.status as status "
+            + " from Booking booking "
+            + " where booking.status in :statuses and booking.end > :now")
+    List<BookingPeriod> findPeriods(@Param("statuses") Collection<BookingStatus> statuses,
+                                    @Param("now") LocalDateTime now);
+
+    @Query("select booking.id as id, booking.item.id as itemId, booking.start as start, booking.end as end, "
+            + " booking.status as status "
+            + " from Booking booking "
+            + " where booking.item.id in :itemIds and booking.status in :statuses and booking.end > :now")
+    List<BookingPeriod> findPeriodsByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+
+    // Однонаправленный курсор: строки читаются из БД порциями по fetch size и сразу становятся DTO,
+    // сущности в контекст не попадают, а кэш второго уровня не засоряется выгрузкой
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(OF_OWNER + NEWEST_FIRST)
+    Stream<BookingDtoOutput> streamByItemOwnerId(@Param("userId") Long ownerId);
+
+    // Строки блокируются до конца транзакции в порядке id: статус не изменится до UPDATE, а встречные пакеты не заблокируют друг друга
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select booking.id as id, booking.item.id as itemId, booking.item.owner.id as ownerId, "
+            + " booking.start as start, booking.end as end, booking.status as status "
+            + " from Booking booking "
+            + " where booking.id in :ids "
+            + " order by booking.id")
+    List<BookingOwnership> lockOwnershipByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Переход статуса одним запросом: условие на текущий статус и владельца проверяет сама БД,
+    // поэтому из двух параллельных подтверждений строку изменит только одно
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking booking set booking.status = :status, booking.version = booking.version + 1 "
+            + " where booking.id = :id and booking.status = :expected "
+            + " and booking.item.id in (select item.id from Item item where item.owner.id = :ownerId)")
+    int updateStatus(@Param("id") Long id,
+                     @Param("ownerId") Long ownerId,
+                     @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking booking set booking.status = :status, booking.version = booking.version + 1 "
+            + " where booking.id in :ids and booking.status = :expected")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("expected") BookingStatus expected,
+                           @Param("status") BookingStatus status);
+}
@@ -2,18 +2,37 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
-import ru.practicum.shareit.booking.specifications.BookingSpecifications;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
 import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.exaption.UnsupportedStatusException;
+import ru.practicum.shareit.item.ItemChangedEvent;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +43,8 @@ public class BookingService {
     private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BookingDtoOutput createBooking(BookingDtoInput bookingDtoInput, Long sharerId) {
         if (bookingDtoInput.getStart() == null) {
@@ -48,26 +69,109 @@ public class BookingService {
         if (!booking.getItem().getAvailable()) {
             throw new BadRequestException("Item not available");
         }
-        return bookingMapper.bookingToBookingDtoOutput(bookingRepository.save(booking));
+        Booking saved = bookingIntervalIndex.book(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                () -> bookingRepository.save(booking));
+        eventPublisher.publishEvent(new ItemChangedEvent(saved.getItem().getId()));
+        return bookingMapper.bookingToBookingDtoOutput(saved);
     }
 
+    // На успешном пути переход статуса — один UPDATE, причина отказа выясняется только если он не прошёл
     public BookingDtoOutput editBookingStatus(Long bookingId, boolean approve, Long ownerId) {
+        BookingStatus status = approve ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatus(bookingId, ownerId, BookingStatus.WAITING, status) == 0) {
+            throw transitionFailure(bookingId, ownerId);
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Booking not found."));
+        bookingIntervalIndex.update(booking);
+        eventPublisher.publishEvent(new ItemChangedEvent(booking.getItem().getId()));
+        return bookingMapper.bookingToBookingDtoOutput(booking);
+    }
+
+    // Владение проверяется одним запросом, статусы меняются одним UPDATE на каждое решение.
+    // Бронирования заблокированы до коммита, поэтому прочитанный статус точен и каждый UPDATE меняет все свои строки
+    @Transactional
+    public List<BookingDecisionResult> editBookingStatuses(List<BookingDecision> decisions, Long ownerId) {
         if (!userRepository.existsById(ownerId)) {
             throw new NotFoundException("User not found.");
         }
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException("Booking not found."));
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new BadRequestException("Booking already approved");
+        Set<Long> ids = decisions.stream()
+                .map(BookingDecision::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingOwnership> bookings = ids.isEmpty() ? Collections.emptyMap()
+                : bookingRepository.lockOwnershipByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, Function.identity()));
+        List<BookingDecisionResult> results = new ArrayList<>(decisions.size());
+        Map<Long, BookingDecisionResult> resultsById = new HashMap<>();
+        Map<BookingStatus, List<BookingOwnership>> changes = new EnumMap<>(BookingStatus.class);
+        for (BookingDecision decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingOwnership booking = bookings.get(bookingId);
+            BookingDecisionResult result;
+            if (bookingId == null || decision.getApproved() == null) {
+                result = BookingDecisionResult.rejected(bookingId, "Booking id and decision are required.");
+            } else if (resultsById.containsKey(bookingId)) {
+                result = BookingDecisionResult.rejected(bookingId, "Duplicate booking id.");
+            } else if (booking == null) {
+                result = BookingDecisionResult.rejected(bookingId, "Booking not found.");
+            } else if (!ownerId.equals(booking.getOwnerId())) {
+                result = BookingDecisionResult.rejected(bookingId, "You cant edit this booking.");
+            } else if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+                result = BookingDecisionResult.rejected(bookingId, transitionError(booking.getStatus()));
+            } else {
+                BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                changes.computeIfAbsent(status, key -> new ArrayList<>()).add(booking);
+                result = BookingDecisionResult.applied(bookingId, status);
+            }
+            results.add(result);
+            if (bookingId != null) {
+                resultsById.putIfAbsent(bookingId, result);
+            }
         }
-        if (!ownerId.equals(booking.getItem().getOwner().getId())) {
-            throw new NotFoundException("You cant edit this booking.");
+        changes.forEach((status, changed) -> bookingRepository.updateStatusByIdIn(
+                changed.stream().map(BookingOwnership::getId).collect(Collectors.toList()), BookingStatus.WAITING, status));
+        afterCommit(() -> {
+            Set<Long> changedItems = new HashSet<>();
+            changes.forEach((status, changed) -> changed.forEach(booking -> {
+                bookingIntervalIndex.update(booking.getItemId(), booking.getId(), booking.getStart(), booking.getEnd(), status);
+                changedItems.add(booking.getItemId());
+            }));
+            changedItems.forEach(itemId -> eventPublisher.publishEvent(new ItemChangedEvent(itemId)));
+        });
+        return results;
+    }
+
+    // Индекс интервалов и кэш карточек обновляются после коммита: иначе параллельное чтение успеет закэшировать старый статус,
+    // а откат оставит в индексе статус, которого нет в БД
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private RuntimeException transitionFailure(Long bookingId, Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            return new NotFoundException("User not found.");
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Booking not found.");
         }
-        if (approve) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        if (!ownerId.equals(booking.getItem().getOwner().getId())) {
+            return new NotFoundException("You cant edit this booking.");
         }
-        return bookingMapper.bookingToBookingDtoOutput(bookingRepository.save(booking));
+        return new BadRequestException(transitionError(booking.getStatus()));
+    }
+
+    private static String transitionError(BookingStatus status) {
+        return status.equals(BookingStatus.APPROVED) ? "Booking already approved" : "Booking is not waiting for approval.";
     }
 
     public BookingDtoOutput getBooking(Long bookingId, Long userId) {
@@ -80,74 +184,110 @@ public class BookingService {
     }
 
     public List<BookingDtoOutput> getBookingsByUserId(String state, Long userId, Integer from, Integer size) {
+        return getBookingsByUserId(state, userId, from, size, null);
+    }
+
+    public List<BookingDtoOutput> getBookingsByUserId(String state, Long userId, Integer from, Integer size, BookingCursor after) {
         if (from == 0 && size == 0) {
             throw new BadRequestException("cant");
         }
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("User not found.");
         }
-
+        if (after != null) {
+            return findBookingsByUserIdAfter(state, userId, after, OffsetPageRequest.of(0, size));
+        }
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case "ALL":
-                List<BookingDtoOutput> bookings = bookingRepository.findAll(BookingSpecifications.withBookerId(userId)).stream().map(bookingMapper::bookingToBookingDtoOutput).collect(Collectors.toList());
-                return bookings.stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findByBookerId(userId, pageable);
             case "CURRENT":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withBookerId(userId)
-                        .and(BookingSpecifications.startBeforeCurrentTime())
-                        .and(BookingSpecifications.endAfterCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findCurrentByBookerId(userId, now, pageable);
             case "PAST":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withBookerId(userId)
-                        .and(BookingSpecifications.endBeforeCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findPastByBookerId(userId, now, pageable);
             case "FUTURE":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withBookerId(userId)
-                        .and(BookingSpecifications.startAfterCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findFutureByBookerId(userId, now, pageable);
             case "WAITING":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withBookerId(userId)
-                        .and(BookingSpecifications.withStatus(BookingStatus.WAITING)))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable);
             case "REJECTED":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withBookerId(userId)
-                        .and(BookingSpecifications.withStatus(BookingStatus.REJECTED)))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
             default:
                 throw new UnsupportedStatusException(state);
         }
     }
 
     public List<BookingDtoOutput> getBookingsByOwnerId(String state, Long userId, Integer from, Integer size) {
+        return getBookingsByOwnerId(state, userId, from, size, null);
+    }
+
+    public List<BookingDtoOutput> getBookingsByOwnerId(String state, Long userId, Integer from, Integer size, BookingCursor after) {
         if (from == 0 && size == 0) {
             throw new BadRequestException("cant");
         }
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("User not found.");
         }
+        if (after != null) {
+            return findBookingsByOwnerIdAfter(state, userId, after, OffsetPageRequest.of(0, size));
+        }
+        Pageable pageable = OffsetPageRequest.of(from, size);
+        LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case "ALL":
-                List<Booking> bookings = bookingRepository.findAll(BookingSpecifications.withOwnerId(userId));
-                List<BookingDtoOutput> bookingsAfterMap = bookings.stream().map(bookingMapper::bookingToBookingDtoOutput).collect(Collectors.toList());
-                List<BookingDtoOutput> result = bookingsAfterMap.stream().skip(from).limit(size).collect(Collectors.toList());
-                return result;
+                return bookingRepository.findByItemOwnerId(userId, pageable);
             case "CURRENT":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withOwnerId(userId)
-                        .and(BookingSpecifications.startBeforeCurrentTime())
-                        .and(BookingSpecifications.endAfterCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findCurrentByItemOwnerId(userId, now, pageable);
             case "PAST":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withOwnerId(userId)
-                        .and(BookingSpecifications.endBeforeCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findPastByItemOwnerId(userId, now, pageable);
             case "FUTURE":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withOwnerId(userId)
-                        .and(BookingSpecifications.startAfterCurrentTime()))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findFutureByItemOwnerId(userId, now, pageable);
             case "WAITING":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withOwnerId(userId)
-                        .and(BookingSpecifications.withStatus(BookingStatus.WAITING)))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
             case "REJECTED":
-                return mapBookingsToDtoOutput(bookingRepository.findAll(BookingSpecifications.withOwnerId(userId)
-                        .and(BookingSpecifications.withStatus(BookingStatus.REJECTED)))).stream().skip(from).limit(size).collect(Collectors.toList());
+                return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
             default:
                 throw new UnsupportedStatusException(state);
         }
     }
 
-    public List<BookingDtoOutput> mapBookingsToDtoOutput(List<Booking> bookings) {
-        return bookings.stream().map(bookingMapper::bookingToBookingDtoOutput).collect(Collectors.toList());
+    private List<BookingDtoOutput> findBookingsByUserIdAfter(String state, Long userId, BookingCursor after, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case "ALL":
+                return bookingRepository.findByBookerIdAfter(userId, after.getStart(), after.getId(), pageable);
+            case "CURRENT":
+                return bookingRepository.findCurrentByBookerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "PAST":
+                return bookingRepository.findPastByBookerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "FUTURE":
+                return bookingRepository.findFutureByBookerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "WAITING":
+                return bookingRepository.findByBookerIdAndStatusAfter(userId, BookingStatus.WAITING, after.getStart(), after.getId(), pageable);
+            case "REJECTED":
+                return bookingRepository.findByBookerIdAndStatusAfter(userId, BookingStatus.REJECTED, after.getStart(), after.getId(), pageable);
+            default:
+                throw new UnsupportedStatusException(state);
+        }
     }
-}
 
+    private List<BookingDtoOutput> findBookingsByOwnerIdAfter(String state, Long userId, BookingCursor after, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case "ALL":
+                return bookingRepository.findByItemOwnerIdAfter(userId, after.getStart(), after.getId(), pageable);
+            case "CURRENT":
+                return bookingRepository.findCurrentByItemOwnerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "PAST":
+                return bookingRepository.findPastByItemOwnerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "FUTURE":
+                return bookingRepository.findFutureByItemOwnerIdAfter(userId, now, after.getStart(), after.getId(), pageable);
+            case "WAITING":
+                return bookingRepository.findByItemOwnerIdAndStatusAfter(userId, BookingStatus.WAITING, after.getStart(), after.getId(), pageable);
+            case "REJECTED":
+                return bookingRepository.findByItemOwnerIdAndStatusAfter(userId, BookingStatus.REJECTED, after.getStart(), after.getId(), pageable);
+            default:
+                throw new UnsupportedStatusException(state);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exaption.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Курсор для keyset-пагинации бронирований: позиция (start, id) последней отданной записи
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private LocalDateTime start;
+    private Long id;
+
+    public static BookingCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int separator = value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new BadRequestException("Cursor must look like <start,id>.");
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Cursor must look like <start,id>.");
+        }
+    }
+
+    public static BookingCursor of(BookingDtoOutput booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    @Override
+    public String toString() {
+        return start + "," + id;
+    }
+}
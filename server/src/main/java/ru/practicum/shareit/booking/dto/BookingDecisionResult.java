@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResult {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+
+    public static BookingDecisionResult applied(Long bookingId, BookingStatus status) {
+        return new BookingDecisionResult(bookingId, status, null);
+    }
+
+    public static BookingDecisionResult rejected(Long bookingId, String error) {
+        return new BookingDecisionResult(bookingId, null, error);
+    }
+}
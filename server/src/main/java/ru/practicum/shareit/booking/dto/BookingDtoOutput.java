@@ -1,17 +1,29 @@
 package ru.practicum.shareit.booking.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class BookingDtoOutput {
     private Long id;
     private LocalDateTime start;
     private LocalDateTime end;
-    private Item item;
-    private User booker;
+    private ItemSummary item;
+    private BookerSummary booker;
     private BookingStatus status;
+
+    // Для выражения select new в запросах списков: строка собирается из столбцов, без загрузки сущностей
+    public BookingDtoOutput(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                            Long itemId, String itemName, Long bookerId) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.item = new ItemSummary(itemId, itemName);
+        this.booker = new BookerSummary(bookerId);
+    }
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingSummary {
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+
+    Boolean getNext();
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Вещь в ответе с бронированием: только то, что нужно клиенту для отображения
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSummary {
+    private Long id;
+    private String name;
+}
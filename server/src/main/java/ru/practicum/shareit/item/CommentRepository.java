@@ -1,10 +1,21 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId(Long itemId);
+
+    // Вещь нужна только для группировки по её id, он берётся из внешнего ключа
+    @Query("select comment from Comment comment "
+            + " join fetch comment.author "
+            + " where comment.item.id in :itemIds")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
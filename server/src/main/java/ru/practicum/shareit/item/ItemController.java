@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -15,7 +17,12 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDtoDefault;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,10 +30,12 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ItemImportService itemImportService) {
         this.itemService = itemService;
+        this.itemImportService = itemImportService;
     }
 
     @PostMapping("/{itemId}/comment")
@@ -40,8 +49,19 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDtoDefault> search(@RequestParam(value = "text", defaultValue = "") String text) {
-        return itemService.search(text);
+    public List<ItemDtoDefault> search(@RequestParam(value = "text", defaultValue = "") String text,
+                                       @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+                                       @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        return itemService.search(text, from, size);
+    }
+
+    @GetMapping("/available")
+    public List<ItemDtoDefault> searchAvailable(@RequestParam(value = "text", defaultValue = "") String text,
+                                                @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                @RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+                                                @RequestParam(name = "size", required = false, defaultValue = "10") Integer size) {
+        return itemService.searchAvailable(text, start, end, from, size);
     }
 
     @PostMapping
@@ -49,6 +69,17 @@ public class ItemController {
         return itemService.createItem(item, userId);
     }
 
+    // Ответ пишется в поток синхронно, чтобы длинный импорт не упирался в таймаут асинхронных запросов
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(InputStream body,
+                            @RequestParam(name = "offset", defaultValue = "0") Long offset,
+                            @RequestHeader(name = "X-Sharer-User-Id", required = true) Long userId,
+                            HttpServletResponse response) throws IOException {
+        User owner = itemImportService.getOwner(userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        itemImportService.importItems(body, owner, offset, response.getOutputStream());
+    }
+
     @PatchMapping("/{id}")
     public ItemDtoDefault updateItem(@PathVariable Long id, @RequestBody ItemDtoWithBookings itemDTOWithBookings,
                            @RequestHeader(name = "X-Sharer-User-Id", required = true) Long userId) {
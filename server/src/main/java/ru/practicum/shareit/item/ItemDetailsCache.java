@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// LRU-кэш карточек вещей: отдельно вид владельца (с бронированиями) и вид остальных пользователей
+@Component
+public class ItemDetailsCache {
+
+    private static final String CACHE_NAME = "itemDetails";
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long generation;
+
+    @Autowired
+    public ItemDetailsCache(@Value("${shareit.item-cache.max-size:10000}") int maxSize,
+                            @Value("${shareit.item-cache.ttl:PT10M}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME).register(meterRegistry);
+        Gauge.builder("cache.size", this, ItemDetailsCache::size).tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    // Если во время загрузки пришла инвалидация, результат не кладётся в кэш, чтобы не закэшировать устаревшие данные
+    public ItemDtoWithBookings get(Long itemId, Long userId, Supplier<Details> loader) {
+        long stamp;
+        synchronized (this) {
+            ItemDtoWithBookings cached = find(new Key(itemId, true), userId, true);
+            if (cached == null) {
+                cached = find(new Key(itemId, false), userId, false);
+            }
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+            stamp = generation;
+        }
+        Details details = loader.get();
+        Long ownerId = details.getItem().getOwner().getId();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        if (details.getValidUntil() != null && details.getValidUntil().isBefore(expiresAt)) {
+            expiresAt = details.getValidUntil();
+        }
+        synchronized (this) {
+            if (stamp == generation) {
+                entries.put(new Key(itemId, ownerId.equals(userId)), new Entry(details.getItem(), ownerId, expiresAt));
+                evictOverflow();
+            }
+        }
+        return details.getItem();
+    }
+
+    @EventListener
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        generation++;
+        entries.remove(new Key(event.getItemId(), true));
+        entries.remove(new Key(event.getItemId(), false));
+    }
+
+    // Имя и почта пользователя встроены в карточки его вещей и его комментарии
+    @EventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private ItemDtoWithBookings find(Key key, Long userId, boolean ownerView) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.ownerId.equals(userId) != ownerView) {
+            return null;
+        }
+        if (entry.expiresAt.isBefore(LocalDateTime.now())) {
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry.item;
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Details {
+        private ItemDtoWithBookings item;
+        private LocalDateTime validUntil;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Key {
+        private Long itemId;
+        private boolean ownerView;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final ItemDtoWithBookings item;
+        private final Long ownerId;
+        private final LocalDateTime expiresAt;
+    }
+}
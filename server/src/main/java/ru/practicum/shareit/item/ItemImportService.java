@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exaption.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Импорт вещей из NDJSON: строки проверяются как в createItem, сохраняются пачками по chunkSize в отдельных транзакциях,
+// результат по каждой строке пишется в ответ сразу после сохранения её пачки
+@Slf4j
+@Service
+public class ItemImportService {
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserService userService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    @Autowired
+    public ItemImportService(ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             UserService userService,
+                             ItemSearchIndex itemSearchIndex,
+                             ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             @Value("${shareit.item-import.chunk-size:1000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userService = userService;
+        this.itemSearchIndex = itemSearchIndex;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public User getOwner(Long userId) {
+        return userService.getUserById(userId);
+    }
+
+    // offset - число строк, уже обработанных в предыдущих запросах того же импорта; нумерация строк продолжается с него
+    public void importItems(InputStream body, User owner, long offset, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<ItemImportResult> results = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        long line = offset;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                Item item = objectMapper.readValue(text, Item.class);
+                ItemService.checkNewItem(item);
+                item.setId(null);
+                item.setOwner(owner);
+                items.add(item);
+                results.add(ItemImportResult.created(line, null));
+            } catch (JsonProcessingException e) {
+                results.add(ItemImportResult.rejected(line, "Malformed JSON."));
+            } catch (BadRequestException e) {
+                results.add(ItemImportResult.rejected(line, e.getMessage()));
+            }
+            if (items.size() == chunkSize) {
+                flush(items, results, out);
+            }
+        }
+        flush(items, results, out);
+    }
+
+    private void flush(List<Item> items, List<ItemImportResult> results, OutputStream out) throws IOException {
+        List<Item> valid = withExistingRequests(items, results);
+        if (!valid.isEmpty()) {
+            try {
+                List<Item> saved = itemRepository.saveAll(valid);
+                saved.forEach(itemSearchIndex::index);
+                for (int i = 0, j = 0; i < results.size(); i++) {
+                    ItemImportResult result = results.get(i);
+                    if (result.getError() == null) {
+                        result.setId(saved.get(j++).getId());
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.warn("Item import chunk rolled back", e);
+                results.stream()
+                        .filter(result -> result.getError() == null)
+                        .forEach(result -> result.setError("Chunk rolled back."));
+            }
+            // Сохранённые вещи больше не нужны в контексте: при open-in-view он живёт весь запрос
+            entityManager.clear();
+        }
+        for (ItemImportResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+        items.clear();
+        results.clear();
+    }
+
+    // Строки со ссылкой на несуществующий запрос отклоняются до вставки, чтобы внешний ключ не откатил всю пачку
+    private List<Item> withExistingRequests(List<Item> items, List<ItemImportResult> results) {
+        Set<Long> requestIds = items.stream()
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return items;
+        }
+        Set<Long> existing = itemRequestRepository.findAllById(requestIds).stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        List<Item> valid = new ArrayList<>();
+        int i = 0;
+        for (ItemImportResult result : results) {
+            if (result.getError() != null) {
+                continue;
+            }
+            Item item = items.get(i++);
+            if (item.getRequestId() == null || existing.contains(item.getRequestId())) {
+                valid.add(item);
+            } else {
+                result.setError("Request not found.");
+            }
+        }
+        return valid;
+    }
+}
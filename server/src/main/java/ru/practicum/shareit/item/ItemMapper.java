@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -7,6 +8,7 @@ import ru.practicum.shareit.item.dto.ItemDtoDefault;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,7 +27,7 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
+                .owner(owner(item))
                 .build();
         itemDtoWithBookings.setComments(comments);
         itemDtoWithBookings.setLastBooking(last);
@@ -51,9 +53,14 @@ public class ItemMapper {
         itemDtoDefault.setId(item.getId());
         itemDtoDefault.setName(item.getName());
         itemDtoDefault.setDescription(item.getDescription());
-        itemDtoDefault.setOwner(item.getOwner());
+        itemDtoDefault.setOwner(owner(item));
         itemDtoDefault.setAvailable(item.getAvailable());
         itemDtoDefault.setRequestId(item.getRequestId());
         return itemDtoDefault;
     }
+
+    // Владелец ленивый: в ответ и в кэш карточек уходит сам пользователь, а не прокси Hibernate
+    private static User owner(Item item) {
+        return Hibernate.unproxy(item.getOwner(), User.class);
+    }
 }
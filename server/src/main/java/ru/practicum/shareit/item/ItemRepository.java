@@ -1,19 +1,36 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE LOWER(i.description) LIKE LOWER(concat('%', :description, '%')) AND i.available = true")
-    List<Item> findByDescription(@Param("description") String description);
+    // Связи ленивые: методы, чей результат отдаётся с владельцем, подтягивают его тем же запросом
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAll();
 
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findByIdInOrderById(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "owner")
     List<Item> findByRequestId(Long requestId);
 
+    @Query("select item from Item item "
+            + " join fetch item.owner "
+            + " where item.requestId in :requestIds "
+            + " order by item.id")
+    List<Item> findByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
 }
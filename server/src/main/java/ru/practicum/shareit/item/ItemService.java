@@ -2,12 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
 import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -15,6 +19,7 @@ import ru.practicum.shareit.item.dto.ItemDtoDefault;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
@@ -22,13 +27,18 @@ import ru.practicum.shareit.user.UserService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemService {
 
+    // Вещи по списку id загружаются порциями, чтобы IN-список запроса оставался ограниченным
+    static final int LOAD_CHUNK = 1000;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserService userService;
@@ -36,6 +46,10 @@ public class ItemService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<ItemDtoDefault> getAllItems() {
         return itemRepository.findAll().stream().map(itemMapper::itemToItemDtoDefault).collect(Collectors.toList());
@@ -51,20 +65,31 @@ public class ItemService {
         Comment comment = commentRepository.save(commentMapper.commentDtoToComment(commentDto,
                 userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found.")),
                 itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found."))));
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         return commentMapper.commentToCommentDto(comment);
     }
 
     public ItemDtoWithBookings getItemById(Long id, Long userId) {
+        return itemDetailsCache.get(id, userId, () -> loadItemById(id, userId));
+    }
+
+    // Карточка владельца действительна до начала следующего бронирования: в этот момент оно становится последним
+    private ItemDetailsCache.Details loadItemById(Long id, Long userId) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item not found."));
         BookingIdAndBookerId next = null;
         BookingIdAndBookerId last = null;
+        LocalDateTime validUntil = null;
         if (item.getOwner().getId().equals(userId)) {
-            next = getBookingIdAndBookerId(bookingRepository.findBookingsNext(id, userId, PageRequest.of(0, 1)));
+            List<Booking> nextBookings = bookingRepository.findBookingsNext(id, userId, PageRequest.of(0, 1));
+            next = getBookingIdAndBookerId(nextBookings);
             last = getBookingIdAndBookerId(bookingRepository.findBookingsLast(id, userId, PageRequest.of(0, 1)));
+            if (!nextBookings.isEmpty()) {
+                validUntil = nextBookings.get(0).getStart();
+            }
         }
         List<Comment> comments = commentRepository.findByItemId(item.getId());
-        return itemMapper.itemToItemDtoWithBookings(item, last, next, comments);
+        return new ItemDetailsCache.Details(itemMapper.itemToItemDtoWithBookings(item, last, next, comments), validUntil);
     }
 
     public List<ItemDtoWithBookings> getItemsByUser(Long userId) {
@@ -73,26 +98,42 @@ public class ItemService {
             throw new NotFoundException("User not found.");
         }
         List<Item> items = itemRepository.findByOwnerIdOrderById(userId);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, BookingIdAndBookerId> lastBookings = new HashMap<>();
+        Map<Long, BookingIdAndBookerId> nextBookings = new HashMap<>();
+        for (ItemBookingSummary booking : bookingRepository.findLastAndNextByOwnerId(userId, LocalDateTime.now())) {
+            Map<Long, BookingIdAndBookerId> target = Boolean.TRUE.equals(booking.getNext()) ? nextBookings : lastBookings;
+            target.put(booking.getItemId(), new BookingIdAndBookerId(booking.getId(), booking.getBookerId()));
+        }
+        Map<Long, List<Comment>> comments = commentRepository.findByItemIdIn(items.stream().map(Item::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
         List<ItemDtoWithBookings> itemsWithDates = new ArrayList<>();
         for (Item item : items) {
-            BookingIdAndBookerId next = getBookingIdAndBookerId(bookingRepository.findBookingsNext(item.getId(), item.getOwner().getId(), PageRequest.of(0, 1)));
-            BookingIdAndBookerId last = getBookingIdAndBookerId(bookingRepository.findBookingsLast(item.getId(), item.getOwner().getId(), PageRequest.of(0, 1)));
-            List<Comment> comments = commentRepository.findByItemId(item.getId());
-            itemsWithDates.add(itemMapper.itemToItemDtoWithBookings(item, last, next, comments));
+            itemsWithDates.add(itemMapper.itemToItemDtoWithBookings(item, lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                    comments.getOrDefault(item.getId(), Collections.emptyList())));
         }
         return itemsWithDates;
     }
 
     public ItemDtoDefault createItem(Item item, Long userId) {
-        if (item.getAvailable() == null || item.getName().isBlank() || item.getName() == null
-                || item.getDescription() == null || item.getDescription().isBlank()) {
-            throw new BadRequestException("The item status must be provided in the request.");
-        }
+        checkNewItem(item);
         if (userId != null && userService.getUserById(userId) == null) {
             throw new NotFoundException("User not found.");
         }
         item.setOwner(userService.getUserById(userId));
-        return itemMapper.itemToItemDtoDefault(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        return itemMapper.itemToItemDtoDefault(saved);
+    }
+
+    static void checkNewItem(Item item) {
+        if (item.getAvailable() == null || item.getName() == null || item.getName().isBlank()
+                || item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new BadRequestException("The item status must be provided in the request.");
+        }
     }
 
     public ItemDtoDefault updateItem(Long id, ItemDtoWithBookings itemDTOWithBookings, Long userId) {
@@ -110,19 +151,56 @@ public class ItemService {
         if (itemDTOWithBookings.getAvailable() != null) {
             item.setAvailable(itemDTOWithBookings.getAvailable());
         }
-        return itemMapper.itemToItemDtoDefault(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        eventPublisher.publishEvent(new ItemChangedEvent(id));
+        return itemMapper.itemToItemDtoDefault(saved);
     }
 
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        itemSearchIndex.delete(id);
+        bookingIntervalIndex.remove(id);
+        eventPublisher.publishEvent(new ItemChangedEvent(id));
     }
 
-    public List<ItemDtoDefault> search(String text) {
+    // Индекс отдаёт id по возрастанию, поэтому страница вырезается из списка id до запроса к БД
+    public List<ItemDtoDefault> search(String text, Integer from, Integer size) {
+        Pageable page = OffsetPageRequest.of(from, size);
         if (text.isBlank()) {
             List empty = Collections.EMPTY_LIST;
             return empty;
         }
-        return itemRepository.findByDescription(text).stream().map(itemMapper::itemToItemDtoDefault).collect(Collectors.toList());
+        List<Long> ids = itemSearchIndex.search(text);
+        if (page.getOffset() >= ids.size()) {
+            return new ArrayList<>();
+        }
+        int pageStart = (int) page.getOffset();
+        return findItems(ids.subList(pageStart, (int) Math.min(ids.size(), page.getOffset() + page.getPageSize())));
+    }
+
+    public List<ItemDtoDefault> searchAvailable(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size) {
+        if (!end.isAfter(start)) {
+            throw new BadRequestException("End time must be after start time.");
+        } else if (end.isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("End time cant be in past.");
+        }
+        Pageable page = OffsetPageRequest.of(from, size);
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = bookingIntervalIndex.findFree(itemSearchIndex.search(text), start, end, page.getOffset(), page.getPageSize());
+        return findItems(ids);
+    }
+
+    private List<ItemDtoDefault> findItems(List<Long> ids) {
+        List<ItemDtoDefault> result = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += LOAD_CHUNK) {
+            itemRepository.findByIdInOrderById(ids.subList(i, Math.min(i + LOAD_CHUNK, ids.size()))).stream()
+                    .map(itemMapper::itemToItemDtoDefault)
+                    .forEach(result::add);
+        }
+        return result;
     }
 
     private BookingIdAndBookerId getBookingIdAndBookerId(List<Booking> bookings) {
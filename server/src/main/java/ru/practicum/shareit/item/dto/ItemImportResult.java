@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private Long line;
+    private Long id;
+    private String error;
+
+    public static ItemImportResult created(Long line, Long id) {
+        return new ItemImportResult(line, id, null);
+    }
+
+    public static ItemImportResult rejected(Long line, String error) {
+        return new ItemImportResult(line, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.querycount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Фильтр объявлен здесь, а не через @Component, чтобы срезы @WebMvcTest без метрик не подхватывали его
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry,
+                                             @Value("${shareit.query-count.headers:false}") boolean headers) {
+        return new QueryCountFilter(meterRegistry, headers);
+    }
+}
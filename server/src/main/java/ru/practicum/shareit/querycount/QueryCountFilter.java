@@ -0,0 +1,112 @@
+package ru.practicum.shareit.querycount;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Считает SQL-запросы каждого HTTP-запроса: отдаёт их в заголовках ответа и пишет распределения по эндпоинтам в метрики
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    // Суммарное время выполнения запросов в миллисекундах
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+
+    public QueryCountFilter(MeterRegistry meterRegistry, boolean headers) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryCounter counter = QueryCounter.start();
+        HeaderWritingResponse wrapper = new HeaderWritingResponse(response, counter);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, headers ? wrapper : response);
+            completed = true;
+        } finally {
+            QueryCounter.stop();
+            // Ответ без тела ещё не отправлен, и заголовки можно выставить с итоговыми значениями
+            if (headers) {
+                wrapper.writeHeaders();
+            }
+            record(request, completed ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR, counter);
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, QueryCounter counter) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                "status", String.valueOf(status));
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements executed per request")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(counter.getCount());
+        Timer.builder("http.server.requests.query.time")
+                .description("Time spent in SQL statements per request")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(counter.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    // Заголовки выставляются перед первой записью тела: позже ответ уже может быть отправлен клиенту.
+    // Запросы, выполненные во время записи тела (потоковая выгрузка), в заголовок не попадают, но попадают в метрики
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final QueryCounter counter;
+
+        private HeaderWritingResponse(HttpServletResponse response, QueryCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        private void writeHeaders() {
+            if (!isCommitted()) {
+                setHeader(QUERY_COUNT_HEADER, String.valueOf(counter.getCount()));
+                setHeader(QUERY_TIME_HEADER, String.format(Locale.ROOT, "%.3f", counter.getNanos() / 1_000_000.0));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.querycount;
+
+// Число и суммарное время SQL-запросов текущего HTTP-запроса; считаются только запросы из потока, который его обрабатывает
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+
+    private QueryCounter() {
+    }
+
+    static QueryCounter start() {
+        QueryCounter counter = new QueryCounter();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    // Вне HTTP-запроса (миграции, фоновые задачи) счётчика нет, и запрос никуда не записывается
+    static void record(long nanos) {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.count++;
+            counter.nanos += nanos;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
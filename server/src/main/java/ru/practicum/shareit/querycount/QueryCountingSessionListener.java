@@ -0,0 +1,31 @@
+package ru.practicum.shareit.querycount;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Hibernate создаёт экземпляр на каждую сессию (hibernate.session.events.auto в JpaConfig);
+// пакет операторов считается одним запросом, потому что уходит в базу одним обращением
+public class QueryCountingSessionListener extends BaseSessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryCounter.record(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryCounter.record(System.nanoTime() - batchStart);
+    }
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestOutput;
 
@@ -13,6 +15,8 @@ import java.util.List;
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemRequestController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -31,9 +35,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestOutput> getRequests(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
-                                               @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
-                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
-        return  itemRequestService.getAllRequests(from, size, userId);
+    public ResponseEntity<List<ItemRequestOutput>> getRequests(@RequestParam(name = "from", required = false, defaultValue = "0") Integer from,
+                                                               @RequestParam(name = "size", required = false, defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "after", required = false) String after,
+                                                               @RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        List<ItemRequestOutput> requests = itemRequestService.getAllRequests(from, size, userId, ItemRequestCursor.parse(after));
+        if (requests.isEmpty() || requests.size() < size) {
+            return ResponseEntity.ok(requests);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, ItemRequestCursor.of(requests.get(requests.size() - 1)).toString())
+                .body(requests);
     }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
@@ -24,7 +25,7 @@ public class ItemRequestMapper {
         ItemRequestOutput itemRequestOutput = ItemRequestOutput.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
-                .requester(itemRequest.getRequester())
+                .requester(Hibernate.unproxy(itemRequest.getRequester(), User.class))
                 .created(itemRequest.getCreated())
                 .items(items)
                 .build();
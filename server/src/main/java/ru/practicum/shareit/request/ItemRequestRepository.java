@@ -1,16 +1,42 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequesterId(Long requesterId);
+    String OTHERS_REQUESTS = "select request from ItemRequest request "
+            + " join fetch request.requester requester "
+            + " where requester.id <> :userId ";
 
-    Page<ItemRequest> findAllByOrderByCreatedDesc(Pageable pageable);
+    String ORDER_BY_CREATED = " order by request.created desc, request.id desc";
+
+    @Override
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findById(Long id);
+
+    // Условие по внешнему ключу request.requester_id, а не по id присоединённого пользователя: так работает
+    // индекс idx_requests_requester_created
+    @Query("select request from ItemRequest request "
+            + " join fetch request.requester "
+            + " where request.requester.id = :requesterId")
+    List<ItemRequest> findByRequesterId(@Param("requesterId") Long requesterId);
+
+    @Query(OTHERS_REQUESTS + ORDER_BY_CREATED)
+    List<ItemRequest> findOthersRequests(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(OTHERS_REQUESTS
+            + " and (request.created < :created or (request.created = :created and request.id < :id)) "
+            + ORDER_BY_CREATED)
+    List<ItemRequest> findOthersRequestsAfter(@Param("userId") Long userId, @Param("created") LocalDateTime created,
+                                              @Param("id") Long id, Pageable pageable);
 }
@@ -2,18 +2,19 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestOutput;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,23 +41,35 @@ public class ItemRequestService {
     public List<ItemRequestOutput> getRequests(Long userId) {
         checkUser(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findByRequesterId(userId);
-        List<ItemRequestOutput> requestOutputs = itemRequests.stream()
-                .map(itemRequest -> itemRequestMapper.itemRequestToItemRequestOutput(itemRequest, itemRepository.findByRequestId(itemRequest.getId())))
-                .collect(Collectors.toList());
-        return requestOutputs;
+        return toOutputs(itemRequests);
     }
 
     public List<ItemRequestOutput> getAllRequests(int from, int size, Long userId) {
-        Pageable pageable = PageRequest.of(from, size);
-        Page<ItemRequest> itemRequestPage = itemRequestRepository.findAllByOrderByCreatedDesc(pageable);
-        List<ItemRequest> itemRequests = itemRequestPage.getContent();
+        return getAllRequests(from, size, userId, null);
+    }
+
+    // Чужие запросы отсекаются в SQL, поэтому страница всегда полная; с курсором from не используется
+    public List<ItemRequestOutput> getAllRequests(int from, int size, Long userId, ItemRequestCursor after) {
+        List<ItemRequest> itemRequests = after == null
+                ? itemRequestRepository.findOthersRequests(userId, OffsetPageRequest.of(from, size))
+                : itemRequestRepository.findOthersRequestsAfter(userId, after.getCreated(), after.getId(), OffsetPageRequest.of(0, size));
+        return toOutputs(itemRequests);
+    }
 
-        List<ItemRequestOutput> requestOutputs = itemRequests.stream()
+    // Ответы на все запросы страницы загружаются одним запросом и раскладываются по запросам в памяти
+    private List<ItemRequestOutput> toOutputs(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return itemRequests.stream()
                 .map(itemRequest -> itemRequestMapper.itemRequestToItemRequestOutput(
-                        itemRequest, itemRepository.findByRequestId(itemRequest.getId())))
-                .filter(o -> !o.getRequester().getId().equals(userId))
+                        itemRequest, itemsByRequest.getOrDefault(itemRequest.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
-        return requestOutputs;
     }
 
     private void checkUser(Long userId) {
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exaption.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Курсор для keyset-пагинации ленты запросов: позиция (created, id) последнего отданного запроса
+@Data
+@AllArgsConstructor
+public class ItemRequestCursor {
+    private LocalDateTime created;
+    private Long id;
+
+    public static ItemRequestCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int separator = value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new BadRequestException("Cursor must look like <created,id>.");
+        }
+        try {
+            return new ItemRequestCursor(LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Long.parseLong(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Cursor must look like <created,id>.");
+        }
+    }
+
+    public static ItemRequestCursor of(ItemRequestOutput itemRequest) {
+        return new ItemRequestCursor(itemRequest.getCreated(), itemRequest.getId());
+    }
+
+    @Override
+    public String toString() {
+        return created + "," + id;
+    }
+}
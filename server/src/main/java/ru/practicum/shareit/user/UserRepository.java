@@ -3,4 +3,10 @@ package ru.practicum.shareit.user;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    // Стандартный existsById делает count-запрос в БД мимо кэша второго уровня, findById читает из кэша
+    @Override
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
 }
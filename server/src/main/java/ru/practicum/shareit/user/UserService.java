@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exaption.NotFoundException;
 
@@ -12,6 +13,7 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User getUserById(Long id) {
         return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found."));
@@ -29,11 +31,14 @@ public class UserService {
         if (user.getName() != null) {
             userUpdate.setName(user.getName());
         }
-        return userRepository.save(userUpdate);
+        User saved = userRepository.save(userUpdate);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        return saved;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     public List<User> getAll() {
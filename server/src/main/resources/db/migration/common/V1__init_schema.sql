@@ -1,5 +1,4 @@
-DROP TABLE IF EXISTS users, items, booking, comments, requests CASCADE;
-
+-- Исходная схема из прежнего schema.sql: существующая БД, созданная им, принимается за эту версию
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
@@ -49,4 +48,4 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comments PRIMARY KEY (id),
   CONSTRAINT fk_comments_user_id FOREIGN KEY (user_id) REFERENCES users(id),
   CONSTRAINT fk_comments_item_id FOREIGN KEY (item_id) REFERENCES items(id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,18 @@
+-- Бронирования пользователя: фильтр по booker_id, порядок start_time DESC, id DESC и курсор берутся из индекса без сортировки
+CREATE INDEX idx_booking_booker_start ON booking (booker_id, start_time DESC, id DESC);
+
+-- Бронирования вещи: последнее/следующее подтверждённое, периоды для проверки пересечений, списки владельца через items
+CREATE INDEX idx_booking_item_status_start ON booking (item_id, status, start_time);
+
+-- Вещи владельца по порядку id и join бронирований владельца по items.user_id
+CREATE INDEX idx_items_user_id ON items (user_id, id);
+
+CREATE INDEX idx_comments_item_id ON comments (item_id);
+
+CREATE INDEX idx_requests_requester_created ON requests (requester_id, created DESC);
+
+-- Чужие запросы с пагинацией и курсором: порядок created DESC, id DESC берётся из индекса
+CREATE INDEX idx_requests_created_id ON requests (created DESC, id DESC);
+
+-- Ответы на запросы: вещи по request_id
+CREATE INDEX idx_items_request_id ON items (request_id);
@@ -0,0 +1,2 @@
+-- Версия для оптимистической блокировки бронирований (@Version в Booking)
+ALTER TABLE booking ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
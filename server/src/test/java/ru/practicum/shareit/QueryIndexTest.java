@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Схема поднимается миграциями Flyway; SQL, который выполняют методы репозиториев, перехватывается
+// через статистику запросов H2 и проверяется через EXPLAIN
+@SpringBootTest
+class QueryIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void migrationsCreateQueryIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes where table_schema = 'PUBLIC'", String.class);
+
+        assertTrue(indexes.containsAll(List.of("idx_booking_booker_start", "idx_booking_item_status_start",
+                "idx_items_user_id", "idx_items_request_id", "idx_comments_item_id", "idx_requests_requester_created",
+                "idx_requests_created_id")), indexes::toString);
+    }
+
+    @Test
+    void bookingsByBookerUseIndex() {
+        assertIndexScan(() -> bookingRepository.findPastByBookerIdAfter(1L, NOW, NOW, 5L, OffsetPageRequest.of(0, 10)));
+    }
+
+    @Test
+    void approvedBookingsOfItemsUseItemStatusStartIndex() {
+        String plan = assertIndexScan(() -> bookingRepository.findPeriodsByItemIdIn(List.of(1L, 2L),
+                List.of(BookingStatus.APPROVED), NOW));
+
+        assertTrue(plan.contains("IDX_BOOKING_ITEM_STATUS_START"), plan);
+    }
+
+    @Test
+    void bookingsOfOwnerUseIndexes() {
+        assertIndexScan(() -> bookingRepository.findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING,
+                OffsetPageRequest.of(0, 10)));
+    }
+
+    @Test
+    void itemsOfOwnerUseIndex() {
+        assertIndexScan(() -> itemRepository.findByOwnerIdOrderById(-1L));
+    }
+
+    @Test
+    void commentsOfItemsUseIndex() {
+        assertIndexScan(() -> commentRepository.findByItemIdIn(List.of(1L, 2L)));
+    }
+
+    @Test
+    void answersOfRequestsUseIndex() {
+        assertIndexScan(() -> itemRepository.findByRequestIdIn(List.of(1L, 2L)));
+    }
+
+    @Test
+    void requestsOfRequesterUseIndex() {
+        assertIndexScan(() -> itemRequestRepository.findByRequesterId(1L));
+    }
+
+    @Test
+    void othersRequestsUseIndex() {
+        assertIndexScan(() -> itemRequestRepository.findOthersRequestsAfter(1L, NOW, 5L, OffsetPageRequest.of(0, 10)));
+    }
+
+    // Выполняет вызов репозитория, проверяет планы всех выполненных им select и возвращает их
+    private String assertIndexScan(Runnable repositoryCall) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        repositoryCall.run();
+        List<String> statements = jdbcTemplate.queryForList(
+                        "select sql_statement from information_schema.query_statistics", String.class).stream()
+                .map(String::trim)
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("information_schema"))
+                .collect(Collectors.toList());
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        assertFalse(statements.isEmpty(), "репозиторий не выполнил ни одного select");
+
+        String plans = statements.stream()
+                .map(sql -> jdbcTemplate.queryForObject("explain " + sql, String.class))
+                .collect(Collectors.joining("\n"));
+        assertFalse(plans.contains("tableScan"), plans);
+        return plans;
+    }
+}
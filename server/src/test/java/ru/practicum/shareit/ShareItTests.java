@@ -1,13 +1,121 @@
 package ru.practicum.shareit;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ShareItTests {
 
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void repeatedLookupsAreServedFromSecondLevelCache() {
+		User user = new User();
+		user.setName("cached");
+		user.setEmail("cached@email.com");
+		user = userRepository.save(user);
+		Item item = new Item();
+		item.setName("cached");
+		item.setDescription("cached");
+		item.setAvailable(true);
+		item.setOwner(user);
+		item = itemRepository.save(item);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		assertTrue(userRepository.existsById(user.getId()));
+		assertTrue(userRepository.existsById(user.getId()));
+		assertEquals(user.getId(), itemRepository.findById(item.getId()).get().getOwner().getId());
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		// владелец вещи ленивый: его id берётся из прокси, без обращения к кэшу пользователей
+		assertEquals(2, statistics.getDomainDataRegionStatistics(JpaConfig.USERS_REGION).getHitCount());
+		assertEquals(1, statistics.getDomainDataRegionStatistics(JpaConfig.ITEMS_REGION).getHitCount());
+	}
+
+	@Test
+	void saveAllSendsInsertsAsBatch() {
+		List<User> users = IntStream.range(0, 10)
+				.mapToObj(i -> {
+					User user = new User();
+					user.setName("batch" + i);
+					user.setEmail("batch" + i + "@email.com");
+					return user;
+				})
+				.collect(Collectors.toList());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<User> saved = userRepository.saveAll(users);
+
+		assertEquals(10, statistics.getEntityInsertCount());
+		assertTrue(statistics.getPrepareStatementCount() <= 3);
+		assertTrue(saved.stream().allMatch(user -> user.getId() != null));
+	}
+
+	@Test
+	void statusTransitionIsAppliedOnlyOnce() {
+		User owner = new User();
+		owner.setName("owner");
+		owner.setEmail("transition-owner@email.com");
+		owner = userRepository.save(owner);
+		User booker = new User();
+		booker.setName("booker");
+		booker.setEmail("transition-booker@email.com");
+		booker = userRepository.save(booker);
+		Item item = new Item();
+		item.setName("transition");
+		item.setDescription("transition");
+		item.setAvailable(true);
+		item.setOwner(owner);
+		item = itemRepository.save(item);
+		Booking booking = new Booking();
+		booking.setStart(LocalDateTime.now().plusDays(1));
+		booking.setEnd(LocalDateTime.now().plusDays(2));
+		booking.setItem(item);
+		booking.setBooker(booker);
+		booking.setStatus(BookingStatus.WAITING);
+		booking = bookingRepository.save(booking);
+
+		assertEquals(0, bookingRepository.updateStatus(booking.getId(), booker.getId(), BookingStatus.WAITING, BookingStatus.APPROVED));
+		assertEquals(1, bookingRepository.updateStatus(booking.getId(), owner.getId(), BookingStatus.WAITING, BookingStatus.APPROVED));
+		assertEquals(0, bookingRepository.updateStatus(booking.getId(), owner.getId(), BookingStatus.WAITING, BookingStatus.REJECTED));
+
+		Booking updated = bookingRepository.findById(booking.getId()).get();
+		assertEquals(BookingStatus.APPROVED, updated.getStatus());
+		assertEquals(booking.getVersion() + 1, updated.getVersion());
+	}
 }
@@ -8,11 +8,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookerSummary;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.ItemSummary;
+import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
@@ -21,8 +29,10 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,6 +46,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExportService bookingExportService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -52,8 +65,8 @@ class BookingControllerTest {
         outputBooking.setEnd(LocalDateTime.parse(expectedBooking.getEnd().format(formatter)));
         outputBooking.setStart(LocalDateTime.parse(expectedBooking.getStart().format(formatter)));
         outputBooking.setStatus(expectedBooking.getStatus());
-        outputBooking.setBooker(expectedBooking.getBooker());
-        outputBooking.setItem(expectedBooking.getItem());
+        outputBooking.setBooker(new BookerSummary(expectedBooking.getBooker().getId()));
+        outputBooking.setItem(new ItemSummary(expectedBooking.getItem().getId(), expectedBooking.getItem().getName()));
 
         when(bookingService.createBooking(any(BookingDtoInput.class), anyLong())).thenReturn(outputBooking);
 
@@ -81,8 +94,8 @@ class BookingControllerTest {
         outputBooking.setEnd(LocalDateTime.parse(expectedBooking.getEnd().format(formatter)));
         outputBooking.setStart(LocalDateTime.parse(expectedBooking.getStart().format(formatter)));
         outputBooking.setStatus(BookingStatus.APPROVED);
-        outputBooking.setBooker(expectedBooking.getBooker());
-        outputBooking.setItem(expectedBooking.getItem());
+        outputBooking.setBooker(new BookerSummary(expectedBooking.getBooker().getId()));
+        outputBooking.setItem(new ItemSummary(expectedBooking.getItem().getId(), expectedBooking.getItem().getName()));
 
         when(bookingService.editBookingStatus(1L, true, 1L)).thenReturn(outputBooking);
 
@@ -111,8 +124,8 @@ class BookingControllerTest {
         outputBooking.setEnd(LocalDateTime.parse(expectedBooking.getEnd().format(formatter)));
         outputBooking.setStart(LocalDateTime.parse(expectedBooking.getStart().format(formatter)));
         outputBooking.setStatus(BookingStatus.APPROVED);
-        outputBooking.setBooker(expectedBooking.getBooker());
-        outputBooking.setItem(expectedBooking.getItem());
+        outputBooking.setBooker(new BookerSummary(expectedBooking.getBooker().getId()));
+        outputBooking.setItem(new ItemSummary(expectedBooking.getItem().getId(), expectedBooking.getItem().getName()));
 
         when(bookingService.getBooking(1L, 1L)).thenReturn(outputBooking);
 
@@ -143,7 +156,7 @@ class BookingControllerTest {
         outputList.forEach(o -> o.setEnd(LocalDateTime.parse(o.getEnd().format(formatter))));
         outputList.forEach(o -> o.setStart(LocalDateTime.parse(o.getStart().format(formatter))));
 
-        when(bookingService.getBookingsByUserId("ALL", 1L, 0, 10)).thenReturn(outputList);
+        when(bookingService.getBookingsByUserId("ALL", 1L, 0, 10, null)).thenReturn(outputList);
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", expectedBookings.get(0).getBooker().getId())
@@ -173,7 +186,7 @@ class BookingControllerTest {
         outputList.forEach(o -> o.setEnd(LocalDateTime.parse(o.getEnd().format(formatter))));
         outputList.forEach(o -> o.setStart(LocalDateTime.parse(o.getStart().format(formatter))));
 
-        when(bookingService.getBookingsByOwnerId("ALL", 2L, 0, 10)).thenReturn(outputList);
+        when(bookingService.getBookingsByOwnerId("ALL", 2L, 0, 10, null)).thenReturn(outputList);
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 2)
@@ -189,6 +202,88 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name").value(outputList.get(0).getItem().getName()));
     }
 
+    @Test
+    void getBookingsByOwnerId_WithCursor() throws Exception {
+        List<Booking> expectedBookings = Arrays.asList(createBooking(1), createBooking(2));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+        BookingMapper bookingMapper = new BookingMapper();
+        List<BookingDtoOutput> outputList = expectedBookings.stream().map(bookingMapper::bookingToBookingDtoOutput).collect(Collectors.toList());
+        outputList.forEach(o -> o.setStart(LocalDateTime.parse(o.getStart().format(formatter))));
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 10, 0, 0), 7L);
+
+        when(bookingService.getBookingsByOwnerId("ALL", 2L, 0, 2, after)).thenReturn(outputList);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("size", "2")
+                        .param("after", "2030-01-01T10:00:00,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, outputList.get(1).getStart() + "," + outputList.get(1).getId()));
+    }
+
+    @Test
+    void getBookingsByUserId_LastPageHasNoCursor() throws Exception {
+        when(bookingService.getBookingsByUserId("ALL", 1L, 0, 10, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getBookingsByUserId_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void editBookingStatuses() throws Exception {
+        when(bookingService.editBookingStatuses(List.of(new BookingDecision(1L, true), new BookingDecision(2L, false)), 2L))
+                .thenReturn(List.of(BookingDecisionResult.applied(1L, BookingStatus.APPROVED),
+                        BookingDecisionResult.rejected(2L, "Booking not found.")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 2)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\":1,\"approved\":true},{\"bookingId\":2,\"approved\":false}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Booking not found."))
+                .andExpect(jsonPath("$[1].status").doesNotExist());
+    }
+
+    @Test
+    void exportBookingsByOwnerId() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingExportService).exportBookingsByOwnerId(eq(2L), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportBookingsByOwnerId_UserNotFound() throws Exception {
+        doThrow(new NotFoundException("User not found.")).when(bookingExportService).checkOwner(99L);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99))
+                .andExpect(status().isNotFound());
+
+        verify(bookingExportService, never()).exportBookingsByOwnerId(anyLong(), any());
+    }
+
     private Booking createBooking(int number) {
         Booking booking = new Booking();
         booking.setId((long) number);
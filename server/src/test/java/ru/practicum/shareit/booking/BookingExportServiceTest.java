@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.exaption.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookingExportServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private BookingExportService bookingExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookingExportService = new BookingExportService(bookingRepository, userRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void exportBookingsByOwnerId_WritesLinePerBooking() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(bookingRepository.streamByItemOwnerId(1L))
+                .thenReturn(Stream.of(createBooking(1L), createBooking(2L)).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingExportService.exportBookingsByOwnerId(1L, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].startsWith("{\"id\":2,"));
+        assertTrue(lines[0].contains("\"item\":{\"id\":10,\"name\":\"item\"}"));
+        assertTrue(lines[0].contains("\"booker\":{\"id\":20}"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportBookingsByOwnerId_WritesAllFetches() throws IOException {
+        int count = BookingRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        when(bookingRepository.streamByItemOwnerId(1L))
+                .thenReturn(LongStream.rangeClosed(1, count).mapToObj(this::createBooking));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        bookingExportService.exportBookingsByOwnerId(1L, out);
+
+        assertEquals(count, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void checkOwner_UserNotFound() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> bookingExportService.checkOwner(99L));
+    }
+
+    private BookingDtoOutput createBooking(long id) {
+        return new BookingDtoOutput(id, LocalDateTime.now(), LocalDateTime.now().plusDays(1), BookingStatus.WAITING,
+                10L, "item", 20L);
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.exaption.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @Test
+    void book_OverlapWithWarmedUpBooking() {
+        when(bookingRepository.findPeriods(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(createPeriod(1L, 1L, 0, 10, BookingStatus.APPROVED)));
+        bookingIntervalIndex.warmUp();
+
+        assertThrows(BadRequestException.class, () -> bookingIntervalIndex.book(1L, at(5), at(15),
+                () -> createBooking(2L, 1L, 5, 15)));
+        assertEquals(2L, bookingIntervalIndex.book(1L, at(10), at(15), () -> createBooking(2L, 1L, 10, 15)).getId());
+        verify(bookingRepository, times(0)).findPeriodsByItemIdIn(eq(List.of(1L)), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void book_LoadsItemLazily() {
+        when(bookingRepository.findPeriodsByItemIdIn(eq(List.of(1L)), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(createPeriod(1L, 1L, 0, 10, BookingStatus.WAITING)));
+
+        assertThrows(BadRequestException.class, () -> bookingIntervalIndex.book(1L, at(9), at(12),
+                () -> createBooking(2L, 1L, 9, 12)));
+        assertEquals(3L, bookingIntervalIndex.book(2L, at(9), at(12), () -> createBooking(3L, 2L, 9, 12)).getId());
+    }
+
+    @Test
+    void book_NewBookingBlocksNextOne() {
+        bookingIntervalIndex.book(1L, at(0), at(10), () -> createBooking(1L, 1L, 0, 10));
+
+        assertThrows(BadRequestException.class, () -> bookingIntervalIndex.book(1L, at(-5), at(1),
+                () -> createBooking(2L, 1L, -5, 1)));
+    }
+
+    @Test
+    void update_RejectedBookingReleasesInterval() {
+        Booking booking = bookingIntervalIndex.book(1L, at(0), at(10), () -> createBooking(1L, 1L, 0, 10));
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingIntervalIndex.update(booking);
+
+        assertEquals(2L, bookingIntervalIndex.book(1L, at(2), at(3), () -> createBooking(2L, 1L, 2, 3)).getId());
+    }
+
+    @Test
+    void findFree_OnlyApprovedBookingsBlockAndMissingItemsLoadOnce() {
+        when(bookingRepository.findPeriodsByItemIdIn(eq(List.of(1L, 2L, 3L)), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(createPeriod(1L, 1L, 0, 10, BookingStatus.APPROVED),
+                        createPeriod(2L, 2L, 0, 10, BookingStatus.WAITING)));
+
+        assertEquals(List.of(2L, 3L), bookingIntervalIndex.findFree(List.of(1L, 2L, 3L), at(5), at(6), 0, 10));
+        assertEquals(List.of(1L, 2L, 3L), bookingIntervalIndex.findFree(List.of(1L, 2L, 3L), at(10), at(12), 0, 10));
+        verify(bookingRepository, times(1)).findPeriodsByItemIdIn(anyCollection(), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void findFree_PagesOverFreeItemsAndLoadsOnlyNeededChunks() {
+        List<Long> itemIds = new ArrayList<>();
+        for (long id = 1; id <= 4L * BookingIntervalIndex.LOAD_CHUNK; id++) {
+            itemIds.add(id);
+        }
+        when(bookingRepository.findPeriodsByItemIdIn(anyCollection(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(createPeriod(1L, 2L, 0, 10, BookingStatus.APPROVED)));
+
+        assertEquals(List.of(4L, 5L), bookingIntervalIndex.findFree(itemIds, at(5), at(6), 2, 2));
+        long lastOfSecondChunk = 2L * BookingIntervalIndex.LOAD_CHUNK;
+        assertEquals(List.of(lastOfSecondChunk, lastOfSecondChunk + 1),
+                bookingIntervalIndex.findFree(itemIds, at(5), at(6), lastOfSecondChunk - 2, 2));
+        verify(bookingRepository, times(3)).findPeriodsByItemIdIn(anyCollection(), anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void findFree_SkipsItemRemovedBeforeCheck() {
+        bookingIntervalIndex.book(1L, at(0), at(1), () -> createBooking(1L, 1L, 0, 1));
+        when(bookingRepository.findPeriodsByItemIdIn(eq(List.of(2L)), anyCollection(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    bookingIntervalIndex.remove(1L);
+                    return List.of();
+                });
+
+        assertEquals(List.of(2L), bookingIntervalIndex.findFree(List.of(1L, 2L), at(5), at(6), 0, 10));
+    }
+
+    @Test
+    void overlaps_MatchesLinearScan() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            long start = random.nextInt(1000);
+            long end = start + 1 + random.nextInt(50);
+            tree.add(id, at(start), at(end));
+            intervals.add(new long[]{id, start, end});
+            if (random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                tree.remove(removed[0]);
+            }
+        }
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(1100);
+            long end = start + 1 + random.nextInt(20);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && start < interval[2]);
+            assertEquals(expected, tree.overlaps(at(start), at(end)));
+        }
+    }
+
+    @Test
+    void removeEnded_DropsOnlyFinishedIntervals() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.add(1L, at(0), at(10));
+        tree.add(2L, at(5), at(20));
+        tree.add(3L, at(30), at(40));
+
+        tree.removeEnded(at(15));
+
+        assertFalse(tree.overlaps(at(0), at(5)));
+        assertTrue(tree.overlaps(at(14), at(15)));
+        assertTrue(tree.overlaps(at(35), at(36)));
+        tree.add(4L, at(0), at(5));
+        assertTrue(tree.overlaps(at(0), at(1)));
+    }
+
+    private static LocalDateTime at(long hours) {
+        return BASE.plusHours(hours);
+    }
+
+    private static Booking createBooking(Long id, Long itemId, long start, long end) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(at(start));
+        booking.setEnd(at(end));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private static BookingPeriod createPeriod(Long id, Long itemId, long start, long end, BookingStatus status) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return at(start);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return at(end);
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dto.BookerSummary;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.ItemSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -42,6 +44,9 @@ class BookingMapperTest {
         booking.setEnd(LocalDateTime.now().plusHours(2));
         Item item = Mockito.mock(Item.class);
         User booker = Mockito.mock(User.class);
+        Mockito.when(item.getId()).thenReturn(3L);
+        Mockito.when(item.getName()).thenReturn("drill");
+        Mockito.when(booker.getId()).thenReturn(4L);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.APPROVED);
@@ -51,8 +56,9 @@ class BookingMapperTest {
         assertEquals(booking.getId(), bookingDtoOutput.getId());
         assertEquals(booking.getStart(), bookingDtoOutput.getStart());
         assertEquals(booking.getEnd(), bookingDtoOutput.getEnd());
-        assertEquals(booking.getItem(), bookingDtoOutput.getItem());
-        assertEquals(booking.getBooker(), bookingDtoOutput.getBooker());
+        assertEquals(new ItemSummary(3L, "drill"), bookingDtoOutput.getItem());
+        assertEquals(new BookerSummary(4L), bookingDtoOutput.getBooker());
+        Mockito.verify(item, Mockito.never()).getOwner();
         assertEquals(booking.getStatus(), bookingDtoOutput.getStatus());
     }
 }
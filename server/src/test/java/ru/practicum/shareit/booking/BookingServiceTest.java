@@ -6,14 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookerSummary;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecision;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
+import ru.practicum.shareit.booking.dto.ItemSummary;
 import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.exaption.UnsupportedStatusException;
+import ru.practicum.shareit.item.ItemChangedEvent;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -21,6 +30,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -40,12 +51,21 @@ public class BookingServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingService bookingService;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(bookingIntervalIndex.book(any(), any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<Booking>) invocation.getArgument(3)).get());
     }
 
     @Test
@@ -161,11 +181,11 @@ public class BookingServiceTest {
                 .start(booking.getStart())
                 .build();
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
-        bookingDtoOutput.setItem(booking.getItem());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setEnd(booking.getEnd());
         bookingDtoOutput.setStatus(booking.getStatus());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setId(booking.getId());
 
         when(bookingRepository.save(booking)).thenReturn(booking);
@@ -179,7 +199,7 @@ public class BookingServiceTest {
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getEnd(), result.getEnd());
         assertEquals(booking.getStart(), result.getStart());
-        assertEquals(booking.getBooker(), result.getBooker());
+        assertEquals(booking.getBooker().getId(), result.getBooker().getId());
         assertEquals(booking.getStatus(), result.getStatus());
     }
 
@@ -193,11 +213,11 @@ public class BookingServiceTest {
                 .start(booking.getStart())
                 .build();
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
-        bookingDtoOutput.setItem(booking.getItem());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setEnd(booking.getEnd());
         bookingDtoOutput.setStatus(booking.getStatus());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setId(booking.getId());
 
         when(bookingRepository.save(booking)).thenReturn(booking);
@@ -209,6 +229,25 @@ public class BookingServiceTest {
         Assertions.assertThrows(BadRequestException.class, () -> bookingService.createBooking(bookingDtoInput, booking.getBooker().getId()));
     }
 
+    @Test
+    public void testCreateBooking_OverlapIsRejectedBeforeSave() {
+        Booking booking = createBooking(1);
+        BookingDtoInput bookingDtoInput = BookingDtoInput.builder()
+                .itemId(booking.getItem().getId())
+                .end(booking.getEnd())
+                .start(booking.getStart())
+                .build();
+
+        when(itemRepository.findById(booking.getItem().getId())).thenReturn(Optional.of(booking.getItem()));
+        when(userRepository.findById(booking.getBooker().getId())).thenReturn(Optional.of(booking.getBooker()));
+        when(bookingMapper.bookingDtoInputToBooking(bookingDtoInput, booking.getItem(), booking.getBooker())).thenReturn(booking);
+        doThrow(new BadRequestException("Item already booked for this time."))
+                .when(bookingIntervalIndex).book(eq(booking.getItem().getId()), eq(booking.getStart()), eq(booking.getEnd()), any());
+
+        assertThrows(BadRequestException.class, () -> bookingService.createBooking(bookingDtoInput, booking.getBooker().getId()));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     public void testGetBooking_TargetBookingExist() {
         Booking booking = createBooking(1);
@@ -216,9 +255,9 @@ public class BookingServiceTest {
         bookingDtoOutput.setId(booking.getId());
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setEnd(booking.getEnd());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setStatus(booking.getStatus());
-        bookingDtoOutput.setItem(booking.getItem());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(userRepository.findById(2L)).thenReturn(Optional.of(booking.getItem().getOwner()));
@@ -229,7 +268,7 @@ public class BookingServiceTest {
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getEnd(), result.getEnd());
         assertEquals(booking.getStart(), result.getStart());
-        assertEquals(booking.getBooker(), result.getBooker());
+        assertEquals(booking.getBooker().getId(), result.getBooker().getId());
         assertEquals(booking.getStatus(), result.getStatus());
 
     }
@@ -237,50 +276,54 @@ public class BookingServiceTest {
     @Test
     public void testEditBookingStatus_Success() {
         Booking booking = createBooking(1);
+        booking.setStatus(BookingStatus.APPROVED);
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
         bookingDtoOutput.setId(booking.getId());
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setEnd(booking.getEnd());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setStatus(BookingStatus.APPROVED);
-        bookingDtoOutput.setItem(booking.getItem());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
 
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
-        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingMapper.bookingToBookingDtoOutput(booking)).thenReturn(bookingDtoOutput);
 
         BookingDtoOutput result = bookingService.editBookingStatus(booking.getId(), true, booking.getItem().getOwner().getId());
 
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(userRepository);
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getEnd(), result.getEnd());
         assertEquals(booking.getStart(), result.getStart());
-        assertEquals(booking.getBooker(), result.getBooker());
+        assertEquals(booking.getBooker().getId(), result.getBooker().getId());
         assertEquals(BookingStatus.APPROVED, result.getStatus());
     }
 
     @Test
     public void testEditBookingStatus_Rejected() {
         Booking booking = createBooking(1);
+        booking.setStatus(BookingStatus.REJECTED);
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
         bookingDtoOutput.setId(booking.getId());
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setEnd(booking.getEnd());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setStatus(BookingStatus.REJECTED);
-        bookingDtoOutput.setItem(booking.getItem());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
 
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
-        when(userRepository.existsById(2L)).thenReturn(true);
         when(bookingMapper.bookingToBookingDtoOutput(booking)).thenReturn(bookingDtoOutput);
 
         BookingDtoOutput result = bookingService.editBookingStatus(booking.getId(), false, booking.getItem().getOwner().getId());
 
+        verify(bookingIntervalIndex).update(booking);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(booking.getItem().getId()));
         assertEquals(booking.getId(), result.getId());
         assertEquals(booking.getEnd(), result.getEnd());
         assertEquals(booking.getStart(), result.getStart());
-        assertEquals(booking.getBooker(), result.getBooker());
+        assertEquals(booking.getBooker().getId(), result.getBooker().getId());
         assertEquals(BookingStatus.REJECTED, result.getStatus());
     }
 
@@ -288,8 +331,8 @@ public class BookingServiceTest {
     public void testEditBookingStatus_CantEdit() {
         Booking booking = createBooking(1);
 
+        when(bookingRepository.updateStatus(1L, 10L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(booking);
         when(userRepository.existsById(10L)).thenReturn(true);
 
         assertThrows(NotFoundException.class, () -> bookingService.editBookingStatus(booking.getId(), true, 10L));
@@ -300,12 +343,37 @@ public class BookingServiceTest {
         Booking booking = createBooking(1);
         booking.setStatus(BookingStatus.APPROVED);
 
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> bookingService.editBookingStatus(booking.getId(), true, booking.getItem().getOwner().getId()));
+        assertEquals("Booking already approved", exception.getMessage());
+        verifyNoInteractions(bookingIntervalIndex, eventPublisher);
+    }
+
+    @Test
+    public void testEditBookingStatus_AlreadyRejected() {
+        Booking booking = createBooking(1);
+        booking.setStatus(BookingStatus.REJECTED);
+
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         assertThrows(BadRequestException.class, () -> bookingService.editBookingStatus(booking.getId(), true, booking.getItem().getOwner().getId()));
     }
 
+    @Test
+    public void testEditBookingStatus_BookingNotFound() {
+        when(bookingRepository.updateStatus(1L, 2L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(NotFoundException.class, () -> bookingService.editBookingStatus(1L, true, 2L));
+    }
+
     @Test
     public void testEditBookingStatus_UserNotFound() {
         Booking booking = createBooking(1);
@@ -313,6 +381,78 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class, () -> bookingService.editBookingStatus(booking.getId(), true, booking.getItem().getOwner().getId()));
     }
 
+    @Test
+    public void testEditBookingStatuses_AppliesOneUpdatePerDecision() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.lockOwnershipByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                createOwnership(1L, 10L, 2L, start, BookingStatus.WAITING),
+                createOwnership(2L, 10L, 2L, start.plusDays(2), BookingStatus.WAITING),
+                createOwnership(3L, 11L, 2L, start, BookingStatus.WAITING)));
+        when(bookingRepository.updateStatusByIdIn(List.of(1L, 3L), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(2);
+        when(bookingRepository.updateStatusByIdIn(List.of(2L), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingDecisionResult> results = bookingService.editBookingStatuses(List.of(
+                new BookingDecision(1L, true), new BookingDecision(2L, false), new BookingDecision(3L, true)), 2L);
+
+        assertEquals(List.of(BookingDecisionResult.applied(1L, BookingStatus.APPROVED),
+                BookingDecisionResult.applied(2L, BookingStatus.REJECTED),
+                BookingDecisionResult.applied(3L, BookingStatus.APPROVED)), results);
+        verify(bookingRepository, times(1)).lockOwnershipByIdIn(any());
+        verify(bookingRepository, times(2)).updateStatusByIdIn(any(), any(), any());
+        verify(bookingIntervalIndex).update(10L, 1L, start, start.plusDays(1), BookingStatus.APPROVED);
+        verify(bookingIntervalIndex).update(10L, 2L, start.plusDays(2), start.plusDays(3), BookingStatus.REJECTED);
+        verify(bookingIntervalIndex).update(11L, 3L, start, start.plusDays(1), BookingStatus.APPROVED);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(10L));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(11L));
+    }
+
+    @Test
+    public void testEditBookingStatuses_ReportsInvalidDecisions() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.lockOwnershipByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                createOwnership(1L, 10L, 5L, start, BookingStatus.WAITING),
+                createOwnership(2L, 11L, 2L, start, BookingStatus.APPROVED)));
+
+        List<BookingDecisionResult> results = bookingService.editBookingStatuses(List.of(
+                new BookingDecision(1L, true), new BookingDecision(2L, false), new BookingDecision(3L, true),
+                new BookingDecision(null, true), new BookingDecision(3L, false)), 2L);
+
+        assertEquals(List.of(BookingDecisionResult.rejected(1L, "You cant edit this booking."),
+                BookingDecisionResult.rejected(2L, "Booking already approved"),
+                BookingDecisionResult.rejected(3L, "Booking not found."),
+                BookingDecisionResult.rejected(null, "Booking id and decision are required."),
+                BookingDecisionResult.rejected(3L, "Duplicate booking id.")), results);
+        verify(bookingRepository, never()).updateStatusByIdIn(any(), any(), any());
+        verifyNoInteractions(bookingIntervalIndex, eventPublisher);
+    }
+
+    @Test
+    public void testEditBookingStatuses_ApprovedConcurrently() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.lockOwnershipByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                createOwnership(1L, 10L, 2L, start, BookingStatus.WAITING),
+                createOwnership(2L, 10L, 2L, start.plusDays(2), BookingStatus.APPROVED)));
+        when(bookingRepository.updateStatusByIdIn(List.of(1L), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingDecisionResult> results = bookingService.editBookingStatuses(List.of(
+                new BookingDecision(1L, false), new BookingDecision(2L, false)), 2L);
+
+        assertEquals(List.of(BookingDecisionResult.applied(1L, BookingStatus.REJECTED),
+                BookingDecisionResult.rejected(2L, "Booking already approved")), results);
+        verify(bookingRepository).updateStatusByIdIn(List.of(1L), BookingStatus.WAITING, BookingStatus.REJECTED);
+        verify(bookingIntervalIndex).update(10L, 1L, start, start.plusDays(1), BookingStatus.REJECTED);
+        verify(bookingIntervalIndex, never()).update(eq(10L), eq(2L), any(), any(), any());
+    }
+
+    @Test
+    public void testEditBookingStatuses_UserNotFound() {
+        when(userRepository.existsById(2L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> bookingService.editBookingStatuses(List.of(new BookingDecision(1L, true)), 2L));
+    }
+
     @Test
     public void testGetBookingsByUserIdAll_GetThreeResults() {
         List<Booking> bookings = Arrays.asList(createBooking(1), createBooking(2), createBooking(3));
@@ -323,17 +463,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByBookerId(eq(1L), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("ALL", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -353,17 +490,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findCurrentByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("CURRENT", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -383,17 +517,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findPastByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("PAST", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -413,17 +544,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findFutureByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("FUTURE", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -443,17 +571,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByBookerIdAndStatus(eq(1L), eq(BookingStatus.WAITING), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("WAITING", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -470,17 +595,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByBookerIdAndStatus(eq(1L), eq(BookingStatus.REJECTED), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(1L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByUserId("REJECTED", 1L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
     }
 
@@ -494,17 +616,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByItemOwnerIdAndStatus(eq(2L), eq(BookingStatus.WAITING), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("WAITING", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -521,17 +640,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByItemOwnerIdAndStatus(eq(2L), eq(BookingStatus.REJECTED), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("REJECTED", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
     }
 
@@ -545,17 +661,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findByItemOwnerId(eq(2L), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("ALL", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -575,17 +688,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findCurrentByItemOwnerId(eq(2L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("CURRENT", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -605,17 +715,14 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findFutureByItemOwnerId(eq(2L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("FUTURE", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
@@ -635,20 +742,58 @@ public class BookingServiceTest {
         BookingDtoOutput book2 = bookingToBookingDtoOutput(bookings.get(1));
         BookingDtoOutput book3 = bookingToBookingDtoOutput(bookings.get(2));
 
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(0))).thenReturn(book1);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(1))).thenReturn(book2);
-        when(bookingMapper.bookingToBookingDtoOutput(bookings.get(2))).thenReturn(book3);
-        when(bookingRepository.findAll(any(Specification.class))).thenReturn(bookings);
+        when(bookingRepository.findPastByItemOwnerId(eq(2L), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(book1, book2, book3));
         when(userRepository.existsById(2L)).thenReturn(true);
 
         List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("PAST", 2L, 0, 10);
 
         assertEquals(result.size(), 3);
         assertEquals(bookings.get(0).getId(), result.get(0).getId());
-        assertEquals(bookings.get(0).getBooker(), result.get(0).getBooker());
+        assertEquals(bookings.get(0).getBooker().getId(), result.get(0).getBooker().getId());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
+    @Test
+    void getBookingsByOwnerId_PassesOffsetAndSizeToRepository() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerId(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        bookingService.getBookingsByOwnerId("ALL", 2L, 5, 10);
+
+        verify(bookingRepository).findByItemOwnerId(2L, OffsetPageRequest.of(5, 10));
+        verify(bookingRepository, never()).findAll();
+    }
+
+    @Test
+    void getBookingsByOwnerId_AfterCursorUsesSeekQuery() {
+        Booking booking = createBooking(1);
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(10), 50L);
+
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(bookingRepository.findByItemOwnerIdAndStatusAfter(2L, BookingStatus.WAITING, after.getStart(), 50L, OffsetPageRequest.of(0, 10)))
+                .thenReturn(List.of(bookingToBookingDtoOutput(booking)));
+
+        List<BookingDtoOutput> result = bookingService.getBookingsByOwnerId("WAITING", 2L, 30, 10, after);
+
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void getBookingsByUserId_AfterCursorUnsupportedState() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.getBookingsByUserId("some", 1L, 0, 10, new BookingCursor(LocalDateTime.now(), 1L)));
+    }
+
+    @Test
+    void getBookingsByUserId_NegativeOffset() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> bookingService.getBookingsByUserId("ALL", 1L, -1, 10));
+    }
+
     @Test
     void getBookingTest_RequestButNotOwner() {
         Booking booking = createBooking(1);
@@ -700,6 +845,40 @@ public class BookingServiceTest {
     }
 
 
+    private BookingOwnership createOwnership(Long id, Long itemId, Long ownerId, LocalDateTime start, BookingStatus status) {
+        return new BookingOwnership() {
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return start.plusDays(1);
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
     private Booking createBooking(int number) {
         Booking booking = new Booking();
         booking.setId((long) number);
@@ -732,8 +911,8 @@ public class BookingServiceTest {
     public BookingDtoOutput bookingToBookingDtoOutput(Booking booking) {
         BookingDtoOutput bookingDtoOutput = new BookingDtoOutput();
         bookingDtoOutput.setId(booking.getId());
-        bookingDtoOutput.setItem(booking.getItem());
-        bookingDtoOutput.setBooker(booking.getBooker());
+        bookingDtoOutput.setItem(new ItemSummary(booking.getItem().getId(), booking.getItem().getName()));
+        bookingDtoOutput.setBooker(new BookerSummary(booking.getBooker().getId()));
         bookingDtoOutput.setEnd(booking.getEnd());
         bookingDtoOutput.setStart(booking.getStart());
         bookingDtoOutput.setStatus(booking.getStatus());
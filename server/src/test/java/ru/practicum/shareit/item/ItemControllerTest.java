@@ -9,22 +9,30 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDtoDefault;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +45,9 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
     @InjectMocks
     private ItemController itemController;
 
@@ -45,6 +56,40 @@ public class ItemControllerTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    public void testImportItems() throws Exception {
+        User owner = new User();
+        owner.setId(1L);
+        when(itemImportService.getOwner(1L)).thenReturn(owner);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"line\":6,\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(itemImportService).importItems(any(), eq(owner), eq(5L), any());
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("offset", "5")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Дрель\",\"available\":true}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"line\":6,\"id\":1}\n"));
+    }
+
+    @Test
+    public void testImportItems_UserNotFound() throws Exception {
+        when(itemImportService.getOwner(99L)).thenThrow(new NotFoundException("User not found."));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 99)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isNotFound());
+
+        verify(itemImportService, never()).importItems(any(), any(), anyLong(), any());
+    }
+
     @Test
     public void testGetItemsByUser() throws Exception {
         Long userId = 1L;
@@ -132,7 +177,7 @@ public class ItemControllerTest {
 
         List<ItemDtoDefault> expectedItems = Collections.singletonList(expectedItem);
 
-        when(itemService.search(searchText)).thenReturn(expectedItems);
+        when(itemService.search(searchText, 0, 10)).thenReturn(expectedItems);
 
         mockMvc.perform(get("/items/search")
                         .param("text", searchText))
@@ -145,7 +190,28 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].owner.id", equalTo(userId.intValue())))
                 .andExpect(jsonPath("$[0].owner.name", equalTo(user.getName())))
                 .andExpect(jsonPath("$[0].owner.email", equalTo(user.getEmail())));
-        verify(itemService).search(searchText);
+        verify(itemService).search(searchText, 0, 10);
+    }
+
+    @Test
+    public void testSearchAvailable() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 2, 10, 0);
+        ItemDtoDefault expectedItem = new ItemDtoDefault();
+        expectedItem.setId(1L);
+        expectedItem.setName("Item 1");
+        expectedItem.setAvailable(true);
+
+        when(itemService.searchAvailable("example", start, end, 0, 10)).thenReturn(List.of(expectedItem));
+
+        mockMvc.perform(get("/items/available")
+                        .param("text", "example")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", equalTo(1)));
+        verify(itemService).searchAvailable("example", start, end, 0, 10);
     }
 
     @Test
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ItemDetailsCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailsCache itemDetailsCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemDetailsCache = new ItemDetailsCache(2, Duration.ofMinutes(10), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_OwnerAndOtherUsersHaveSeparateEntries() {
+        ItemDtoWithBookings ownerView = itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, null));
+        ItemDtoWithBookings otherView = itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+
+        assertSame(ownerView, itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, null)));
+        assertSame(otherView, itemDetailsCache.get(1L, 30L, () -> load(1L, 10L, null)));
+        assertEquals(2, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void onItemChanged_RemovesBothViews() {
+        itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, null));
+        itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+        itemDetailsCache.get(2L, 20L, () -> load(2L, 10L, null));
+
+        itemDetailsCache.onItemChanged(new ItemChangedEvent(1L));
+
+        assertEquals(1, itemDetailsCache.size());
+        itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void onUserChanged_ClearsCache() {
+        itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, null));
+
+        itemDetailsCache.onUserChanged(new UserChangedEvent(10L));
+
+        assertEquals(0, itemDetailsCache.size());
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsed() {
+        itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+        itemDetailsCache.get(2L, 20L, () -> load(2L, 10L, null));
+        itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+        itemDetailsCache.get(3L, 20L, () -> load(3L, 10L, null));
+
+        itemDetailsCache.get(1L, 20L, () -> load(1L, 10L, null));
+        assertEquals(3, loads.get());
+        itemDetailsCache.get(2L, 20L, () -> load(2L, 10L, null));
+        assertEquals(4, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void get_OwnerViewExpiresWhenNextBookingStarts() {
+        itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, LocalDateTime.now().minusSeconds(1)));
+        itemDetailsCache.get(1L, 10L, () -> load(1L, 10L, null));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void get_InvalidationDuringLoadIsNotOverwritten() {
+        itemDetailsCache.get(1L, 20L, () -> {
+            itemDetailsCache.onItemChanged(new ItemChangedEvent(1L));
+            return load(1L, 10L, null);
+        });
+
+        assertEquals(0, itemDetailsCache.size());
+    }
+
+    private ItemDetailsCache.Details load(Long itemId, Long ownerId, LocalDateTime validUntil) {
+        loads.incrementAndGet();
+        User owner = new User();
+        owner.setId(ownerId);
+        ItemDtoWithBookings item = new ItemDtoWithBookings();
+        item.setId(itemId);
+        item.setOwner(owner);
+        return new ItemDetailsCache.Details(item, validUntil);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ItemImportServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private ItemImportService itemImportService;
+
+    private final User owner = new User();
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        itemImportService = new ItemImportService(itemRepository, itemRequestRepository, userService, itemSearchIndex,
+                new ObjectMapper(), entityManager, 2);
+        owner.setId(1L);
+        AtomicLong ids = new AtomicLong(100);
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            chunkSizes.add(items.size());
+            return items;
+        });
+    }
+
+    @Test
+    void importItems_ValidLinesSavedInChunks() throws IOException {
+        String body = item("Дрель") + "\n"
+                + "{\"name\":\"\",\"description\":\"d\",\"available\":true}\n"
+                + "not json\n"
+                + "\n"
+                + item("Пила") + "\n"
+                + item("Молоток") + "\n";
+
+        String result = importItems(body, 0);
+
+        assertEquals("{\"line\":1,\"id\":101}\n"
+                + "{\"line\":2,\"error\":\"The item status must be provided in the request.\"}\n"
+                + "{\"line\":3,\"error\":\"Malformed JSON.\"}\n"
+                + "{\"line\":5,\"id\":102}\n"
+                + "{\"line\":6,\"id\":103}\n", result);
+        assertEquals(List.of(2, 1), chunkSizes);
+        verify(itemSearchIndex, times(3)).index(any(Item.class));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importItems_OffsetContinuesLineNumbers() throws IOException {
+        String result = importItems(item("Дрель") + "\n", 1000);
+
+        assertEquals("{\"line\":1001,\"id\":101}\n", result);
+    }
+
+    @Test
+    void importItems_UnknownRequestRejectedBeforeInsert() throws IOException {
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        when(itemRequestRepository.findAllById(Set.of(5L, 6L))).thenReturn(List.of(request));
+
+        String result = importItems(itemWithRequest("Дрель", 5L) + "\n" + itemWithRequest("Пила", 6L) + "\n", 0);
+
+        assertEquals("{\"line\":1,\"id\":101}\n{\"line\":2,\"error\":\"Request not found.\"}\n", result);
+    }
+
+    @Test
+    void importItems_FailedChunkReportedForEachLine() throws IOException {
+        List<List<Item>> saved = new ArrayList<>();
+        when(itemRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("constraint"))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    items.forEach(item -> item.setId(7L));
+                    saved.add(items);
+                    return items;
+                });
+
+        String result = importItems(item("Дрель") + "\n" + item("Пила") + "\n" + item("Молоток") + "\n", 0);
+
+        assertEquals("{\"line\":1,\"error\":\"Chunk rolled back.\"}\n"
+                + "{\"line\":2,\"error\":\"Chunk rolled back.\"}\n"
+                + "{\"line\":3,\"id\":7}\n", result);
+        assertEquals(1, saved.size());
+    }
+
+    private String importItems(String body, long offset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemImportService.importItems(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), owner, offset, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String item(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"" + name + "\",\"available\":true}";
+    }
+
+    private static String itemWithRequest(String name, Long requestId) {
+        return "{\"name\":\"" + name + "\",\"description\":\"" + name + "\",\"available\":true,\"requestId\":" + requestId + "}";
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    void rebuild_IndexesOnlyAvailableItems() {
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                createItem(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true),
+                createItem(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                createItem(3L, "Дрель", "Простая дрель", false))));
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(1L, 2L), itemSearchIndex.search("аккУМУляторная"));
+        assertEquals(List.of(1L), itemSearchIndex.search("дРелЬ"));
+        assertEquals(List.of(2L), itemSearchIndex.search("оТверТ"));
+    }
+
+    @Test
+    void search_AllTokensMustMatch() {
+        itemSearchIndex.index(createItem(1L, "Дрель", "Ударная дрель", true));
+        itemSearchIndex.index(createItem(2L, "Дрель", "Безударная", true));
+
+        assertEquals(List.of(1L), itemSearchIndex.search("дрель удар"));
+        assertEquals(List.of(1L, 2L), itemSearchIndex.search("дре"));
+        assertTrue(itemSearchIndex.search("перфоратор").isEmpty());
+        assertTrue(itemSearchIndex.search("  ").isEmpty());
+    }
+
+    @Test
+    void index_ReplacesTokensOnUpdate() {
+        itemSearchIndex.index(createItem(1L, "Дрель", "Ударная дрель", true));
+        itemSearchIndex.index(createItem(1L, "Отвертка", "Крестовая", true));
+
+        assertTrue(itemSearchIndex.search("дрель").isEmpty());
+        assertEquals(List.of(1L), itemSearchIndex.search("крест"));
+
+        itemSearchIndex.index(createItem(1L, "Отвертка", "Крестовая", false));
+
+        assertTrue(itemSearchIndex.search("крест").isEmpty());
+    }
+
+    @Test
+    void delete_RemovesItem() {
+        itemSearchIndex.index(createItem(1L, "Дрель", "Ударная дрель", true));
+
+        itemSearchIndex.delete(1L);
+        itemSearchIndex.delete(2L);
+
+        assertTrue(itemSearchIndex.search("дрель").isEmpty());
+    }
+
+    @Test
+    void tokenize_SplitsOnPunctuationAndLowercases() {
+        assertEquals(Set.of("дрель", "аккумулятор", "18v"), ItemSearchIndex.tokenize("Дрель + АККУМУЛЯТОР, 18V!"));
+    }
+
+    private Item createItem(Long id, String name, String description, Boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
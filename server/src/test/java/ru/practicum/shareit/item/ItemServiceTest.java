@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.booking.dto.ItemBookingSummary;
 import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -26,7 +29,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -55,12 +60,27 @@ public class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemService itemService;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(itemDetailsCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<ItemDetailsCache.Details>) invocation.getArgument(2)).get().getItem());
     }
 
     @Test
@@ -106,10 +126,10 @@ public class ItemServiceTest {
 
         when(userService.getUserById(anyLong())).thenReturn(item.getOwner());
         when(itemRepository.findByOwnerIdOrderById(anyLong())).thenReturn(Collections.singletonList(item));
-        when(bookingRepository.findBookingsNext(anyLong(), anyLong(), any(PageRequest.class))).thenReturn(Collections.singletonList(createBooking(2)));
-        when(bookingRepository.findBookingsLast(anyLong(), anyLong(), any(PageRequest.class))).thenReturn(Collections.singletonList(createBooking(3)));
-        when(commentRepository.findByItemId(item.getId())).thenReturn(Collections.emptyList());
-        when(itemMapper.itemToItemDtoWithBookings(any(Item.class), any(BookingIdAndBookerId.class), any(BookingIdAndBookerId.class), anyList())).thenReturn(expected);
+        when(bookingRepository.findLastAndNextByOwnerId(eq(item.getOwner().getId()), any(LocalDateTime.class)))
+                .thenReturn(List.of(createItemBookingSummary(2L, 5L, item.getId(), true), createItemBookingSummary(3L, 6L, item.getId(), false)));
+        when(commentRepository.findByItemIdIn(List.of(item.getId()))).thenReturn(Collections.emptyList());
+        when(itemMapper.itemToItemDtoWithBookings(item, new BookingIdAndBookerId(3L, 6L), new BookingIdAndBookerId(2L, 5L), Collections.emptyList())).thenReturn(expected);
 
         List<ItemDtoWithBookings> actual = itemService.getItemsByUser(item.getOwner().getId());
 
@@ -117,6 +137,8 @@ public class ItemServiceTest {
         assertEquals(expected.getDescription(), actual.get(0).getDescription());
         assertEquals(expected.getName(), actual.get(0).getName());
         assertEquals(expected.getOwner(), actual.get(0).getOwner());
+        verify(bookingRepository, never()).findBookingsNext(anyLong(), anyLong(), any(PageRequest.class));
+        verify(commentRepository, never()).findByItemId(anyLong());
 
     }
 
@@ -233,6 +255,8 @@ public class ItemServiceTest {
 
         ItemDtoDefault result = itemService.createItem(item, 1L);
 
+        verify(itemSearchIndex).index(item);
+
         assertEquals(itemDtoDefault.getId(), result.getId());
         assertEquals(itemDtoDefault.getName(), result.getName());
         assertEquals(itemDtoDefault.getDescription(), result.getDescription());
@@ -301,13 +325,10 @@ public class ItemServiceTest {
     @Test
     public void testSearch_EmptyText_ReturnsEmptyList() {
         String text = "";
-        List<Item> itemList = Collections.emptyList();
-
-        when(itemRepository.findByDescription(text)).thenReturn(itemList);
-
-        List<ItemDtoDefault> result = itemService.search(text);
+        List<ItemDtoDefault> result = itemService.search(text, 0, 10);
 
         assertTrue(result.isEmpty());
+        verify(itemSearchIndex, never()).search(anyString());
     }
 
     @Test
@@ -327,7 +348,8 @@ public class ItemServiceTest {
 
         List<Item> itemList = Arrays.asList(item1, item2);
 
-        when(itemRepository.findByDescription(text)).thenReturn(itemList);
+        when(itemSearchIndex.search(text)).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findByIdInOrderById(List.of(1L, 2L))).thenReturn(itemList);
 
         ItemDtoDefault itemDto1 = new ItemDtoDefault();
         itemDto1.setId(1L);
@@ -346,7 +368,7 @@ public class ItemServiceTest {
         when(itemMapper.itemToItemDtoDefault(item1)).thenReturn(itemDto1);
         when(itemMapper.itemToItemDtoDefault(item2)).thenReturn(itemDto2);
 
-        List<ItemDtoDefault> result = itemService.search(text);
+        List<ItemDtoDefault> result = itemService.search(text, 0, 10);
 
         assertEquals(expectedDtoList.size(), result.size());
         assertEquals(expectedDtoList.get(0).getId(), result.get(0).getId());
@@ -360,6 +382,48 @@ public class ItemServiceTest {
         assertEquals(expectedDtoList.get(1).getAvailable(), result.get(1).getAvailable());
     }
 
+    @Test
+    public void testSearchAvailable_FiltersBookedItems() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        Item item = new Item();
+        item.setId(3L);
+        item.setName("Item 3");
+        item.setAvailable(true);
+        ItemDtoDefault itemDto = new ItemDtoDefault();
+        itemDto.setId(3L);
+
+        when(itemSearchIndex.search("item")).thenReturn(List.of(1L, 3L));
+        when(bookingIntervalIndex.findFree(List.of(1L, 3L), start, end, 0, 10)).thenReturn(List.of(3L));
+        when(itemRepository.findByIdInOrderById(List.of(3L))).thenReturn(List.of(item));
+        when(itemMapper.itemToItemDtoDefault(item)).thenReturn(itemDto);
+
+        List<ItemDtoDefault> result = itemService.searchAvailable("item", start, end, 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+    }
+
+    @Test
+    public void testSearchAvailable_EndBeforeStart() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        assertThrows(BadRequestException.class, () -> itemService.searchAvailable("item", start, start.minusDays(1), 0, 10));
+        verify(bookingIntervalIndex, never()).findFree(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    public void testSearchAvailable_NothingFree() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(itemSearchIndex.search("item")).thenReturn(List.of(1L));
+        when(bookingIntervalIndex.findFree(List.of(1L), start, end, 0, 10)).thenReturn(Collections.emptyList());
+
+        assertTrue(itemService.searchAvailable("item", start, end, 0, 10).isEmpty());
+        verify(itemRepository, never()).findByIdInOrderById(any());
+    }
+
     @Test
     public void testSearch_SubstringInDescription_ReturnsMatchingItems() {
         String text = "description";
@@ -384,7 +448,8 @@ public class ItemServiceTest {
 
         List<Item> itemList = Arrays.asList(item1, item3);
 
-        when(itemRepository.findByDescription(text)).thenReturn(itemList);
+        when(itemSearchIndex.search(text)).thenReturn(List.of(1L, 3L));
+        when(itemRepository.findByIdInOrderById(List.of(1L, 3L))).thenReturn(itemList);
 
         ItemDtoDefault itemDto1 = new ItemDtoDefault();
         itemDto1.setId(1L);
@@ -403,7 +468,7 @@ public class ItemServiceTest {
         when(itemMapper.itemToItemDtoDefault(item1)).thenReturn(itemDto1);
         when(itemMapper.itemToItemDtoDefault(item3)).thenReturn(itemDto3);
 
-        List<ItemDtoDefault> result = itemService.search(text);
+        List<ItemDtoDefault> result = itemService.search(text, 0, 10);
 
         assertEquals(expectedDtoList.size(), result.size());
         assertEquals(expectedDtoList.get(0).getId(), result.get(0).getId());
@@ -417,6 +482,41 @@ public class ItemServiceTest {
         assertEquals(expectedDtoList.get(1).getAvailable(), result.get(1).getAvailable());
     }
 
+    @Test
+    public void testSearch_LoadsOnlyRequestedPage() {
+        Item item = new Item();
+        item.setId(3L);
+        ItemDtoDefault itemDto = new ItemDtoDefault();
+        itemDto.setId(3L);
+
+        when(itemSearchIndex.search("item")).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(itemRepository.findByIdInOrderById(List.of(3L, 4L))).thenReturn(List.of(item));
+        when(itemMapper.itemToItemDtoDefault(item)).thenReturn(itemDto);
+
+        List<ItemDtoDefault> result = itemService.search("item", 2, 2);
+
+        assertEquals(1, result.size());
+        assertEquals(3L, result.get(0).getId());
+        assertTrue(itemService.search("item", 5, 2).isEmpty());
+        verify(itemRepository, times(1)).findByIdInOrderById(any());
+    }
+
+    @Test
+    public void testSearch_LoadsLargePageInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, ItemService.LOAD_CHUNK + 1).boxed().collect(Collectors.toList());
+        when(itemSearchIndex.search("item")).thenReturn(ids);
+
+        itemService.search("item", 0, ids.size());
+
+        verify(itemRepository).findByIdInOrderById(ids.subList(0, ItemService.LOAD_CHUNK));
+        verify(itemRepository).findByIdInOrderById(List.of((long) ItemService.LOAD_CHUNK + 1));
+    }
+
+    @Test
+    public void testSearch_NegativeFrom() {
+        assertThrows(BadRequestException.class, () -> itemService.search("item", -1, 10));
+    }
+
     @Test
     void addComment_EmptyText() {
         CommentDto commentDto = new CommentDto();
@@ -506,6 +606,7 @@ public class ItemServiceTest {
         assertEquals(expected.getId(), result.getId());
         assertEquals(expected.getName(), result.getName());
         assertEquals(expected.getDescription(), result.getDescription());
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId()));
     }
 
     @Test
@@ -513,6 +614,8 @@ public class ItemServiceTest {
         itemService.deleteItem(1L);
 
         verify(itemRepository, times(1)).deleteById(1L);
+        verify(itemSearchIndex, times(1)).delete(1L);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(1L));
     }
 
     @Test
@@ -551,6 +654,66 @@ public class ItemServiceTest {
         return item;
     }
 
+    @Test
+    void getItemByUser_GroupsCommentsByItem() {
+        Item item1 = createItem(1);
+        Item item2 = createItem(2);
+        item2.setOwner(item1.getOwner());
+        Comment comment1 = createComment(1);
+        comment1.setItem(item1);
+        Comment comment2 = createComment(2);
+        comment2.setItem(item2);
+        Comment comment3 = createComment(3);
+        comment3.setItem(item2);
+
+        when(userService.getUserById(item1.getOwner().getId())).thenReturn(item1.getOwner());
+        when(itemRepository.findByOwnerIdOrderById(item1.getOwner().getId())).thenReturn(List.of(item1, item2));
+        when(bookingRepository.findLastAndNextByOwnerId(eq(item1.getOwner().getId()), any(LocalDateTime.class))).thenReturn(List.of());
+        when(commentRepository.findByItemIdIn(List.of(item1.getId(), item2.getId()))).thenReturn(List.of(comment1, comment2, comment3));
+        when(itemMapper.itemToItemDtoWithBookings(any(Item.class), isNull(), isNull(), anyList()))
+                .thenAnswer(invocation -> itemToItemDtoWithBookings(invocation.getArgument(0), null, null, invocation.getArgument(3)));
+
+        List<ItemDtoWithBookings> actual = itemService.getItemsByUser(item1.getOwner().getId());
+
+        assertEquals(2, actual.size());
+        assertEquals(1, actual.get(0).getComments().size());
+        assertEquals(2, actual.get(1).getComments().size());
+        assertNull(actual.get(0).getLastBooking());
+    }
+
+    @Test
+    void getItemByUser_NoItems() {
+        when(userService.getUserById(1L)).thenReturn(createUser(1));
+        when(itemRepository.findByOwnerIdOrderById(1L)).thenReturn(List.of());
+
+        assertTrue(itemService.getItemsByUser(1L).isEmpty());
+        verify(bookingRepository, never()).findLastAndNextByOwnerId(anyLong(), any(LocalDateTime.class));
+    }
+
+    private ItemBookingSummary createItemBookingSummary(Long id, Long bookerId, Long itemId, Boolean next) {
+        return new ItemBookingSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Boolean getNext() {
+                return next;
+            }
+        };
+    }
+
     private Comment createComment(int i) {
         Comment comment = new Comment();
         comment.setAuthor(createUser(i + 5));
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.querycount;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Проверки числа SQL-запросов эндпоинта по заголовку X-Query-Count: mockMvc.perform(...).andExpect(atMostQueries(3))
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+    }
+
+    public static ResultMatcher atMostQueries(int max) {
+        return result -> {
+            int count = queryCount(result);
+            assertTrue(count <= max, () -> "Expected at most " + max + " SQL statements for "
+                    + result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + ", got " + count);
+        };
+    }
+
+    public static int queryCount(MvcResult result) {
+        String header = result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER);
+        assertNotNull(header, "No " + QueryCountFilter.QUERY_COUNT_HEADER + " header in response");
+        return Integer.parseInt(header);
+    }
+}
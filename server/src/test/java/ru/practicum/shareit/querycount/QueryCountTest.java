@@ -0,0 +1,229 @@
+package ru.practicum.shareit.querycount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.querycount.QueryCountMatchers.atMostQueries;
+import static ru.practicum.shareit.querycount.QueryCountMatchers.queryCount;
+
+// Число запросов эндпоинта не должно зависеть от объёма данных пользователя: рост с числом вещей или бронирований означает N+1
+@SpringBootTest(properties = "shareit.query-count.headers=true")
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    private static final int LARGE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private User smallOwner;
+    private User largeOwner;
+    private User smallBooker;
+    private User largeBooker;
+    private List<Item> largeItems;
+
+    @BeforeEach
+    void setUp() {
+        smallOwner = createUser();
+        largeOwner = createUser();
+        smallBooker = createUser();
+        largeBooker = createUser();
+        createItems(smallOwner, 1, smallBooker);
+        largeItems = createItems(largeOwner, LARGE, largeBooker);
+    }
+
+    @Test
+    void itemsOfOwner_QueryCountDoesNotGrowWithItems() throws Exception {
+        assertSameQueryCount("/items", smallOwner, largeOwner, 3);
+    }
+
+    @Test
+    void bookingsOfOwner_QueryCountDoesNotGrowWithBookings() throws Exception {
+        assertSameQueryCount("/bookings/owner?size=50", smallOwner, largeOwner, 2);
+    }
+
+    @Test
+    void bookingsOfBooker_QueryCountDoesNotGrowWithBookings() throws Exception {
+        assertSameQueryCount("/bookings?size=50", smallBooker, largeBooker, 2);
+    }
+
+    @Test
+    void itemOfOwner_LoadsBookingsAndCommentsInBoundedQueries() throws Exception {
+        mockMvc.perform(get("/items/" + largeItems.get(0).getId()).header("X-Sharer-User-Id", largeOwner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(atMostQueries(3));
+    }
+
+    @Test
+    void searchItems_LoadsOwnersWithItems() throws Exception {
+        largeItems.forEach(itemSearchIndex::index);
+
+        mockMvc.perform(get("/items/search").param("text", "query count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].owner.email").exists())
+                .andExpect(atMostQueries(1));
+    }
+
+    @Test
+    void requestById_LoadsRequesterAndAnswersInBoundedQueries() throws Exception {
+        ItemRequest request = new ItemRequest();
+        request.setDescription("query count");
+        request.setRequester(smallBooker);
+        request.setCreated(LocalDateTime.now());
+        request = itemRequestRepository.save(request);
+        for (Item item : createItems(largeOwner, 2, largeBooker)) {
+            item.setRequestId(request.getId());
+            itemRepository.save(item);
+        }
+
+        mockMvc.perform(get("/requests/" + request.getId()).header("X-Sharer-User-Id", smallOwner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requester.email").value(smallBooker.getEmail()))
+                .andExpect(jsonPath("$.items[0].owner.email").value(largeOwner.getEmail()))
+                .andExpect(atMostQueries(3));
+    }
+
+    @Test
+    void batchDecisions_LockAndUpdateInBoundedQueries() throws Exception {
+        Set<Long> itemIds = largeItems.stream().map(Item::getId).collect(Collectors.toSet());
+        String decisions = bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()) && booking.getStatus() == BookingStatus.WAITING)
+                .map(booking -> "{\"bookingId\":" + booking.getId() + ",\"approved\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+        bookingIntervalIndex.warmUp();
+
+        mockMvc.perform(patch("/bookings/batch").header("X-Sharer-User-Id", largeOwner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(decisions))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(LARGE)))
+                .andExpect(jsonPath("$[*].status", everyItem(equalTo("APPROVED"))))
+                .andExpect(atMostQueries(3));
+    }
+
+    @Test
+    void queryTimeHeaderAndMetricsAreRecorded() throws Exception {
+        MvcResult result = mockMvc.perform(get("/items").header("X-Sharer-User-Id", largeOwner.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNotNull(result.getResponse().getHeader(QueryCountFilter.QUERY_TIME_HEADER));
+        assertTrue(meterRegistry.get("http.server.requests.queries").tag("uri", "/items").tag("status", "200")
+                .summary().count() > 0);
+        assertTrue(meterRegistry.get("http.server.requests.query.time").tag("uri", "/items").timer().count() > 0);
+    }
+
+    private void assertSameQueryCount(String path, User small, User large, int max) throws Exception {
+        MvcResult smallResult = mockMvc.perform(get(path).header("X-Sharer-User-Id", small.getId()))
+                .andExpect(status().isOk())
+                .andExpect(atMostQueries(max))
+                .andReturn();
+        MvcResult largeResult = mockMvc.perform(get(path).header("X-Sharer-User-Id", large.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(queryCount(smallResult), queryCount(largeResult), path);
+    }
+
+    // У каждой вещи прошлое подтверждённое бронирование с комментарием и будущее, ожидающее решения
+    private List<Item> createItems(User owner, int count, User booker) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setName("item " + i);
+            item.setDescription("query count");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item = itemRepository.save(item);
+            items.add(item);
+            bookingRepository.save(createBooking(item, booker, now.minusDays(2), BookingStatus.APPROVED));
+            bookingRepository.save(createBooking(item, booker, now.plusDays(1 + i), BookingStatus.WAITING));
+            Comment comment = new Comment();
+            comment.setText("comment " + i);
+            comment.setItem(item);
+            comment.setAuthor(booker);
+            comment.setCreated(now.minusDays(1));
+            commentRepository.save(comment);
+        }
+        return items;
+    }
+
+    private Booking createBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setName("query count");
+        user.setEmail(UUID.randomUUID() + "@email.com");
+        return userRepository.save(user);
+    }
+}
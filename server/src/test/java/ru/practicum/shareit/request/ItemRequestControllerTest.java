@@ -11,6 +11,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestOutput;
 import ru.practicum.shareit.user.User;
@@ -21,11 +22,13 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -142,7 +145,7 @@ class ItemRequestControllerTest {
                 .build();
         List<ItemRequestOutput> expectedList = Arrays.asList(itemRequestOutput1, itemRequestOutput2);
 
-        when(itemRequestService.getAllRequests(0, 10,itemRequest1.getRequester().getId())).thenReturn(expectedList);
+        when(itemRequestService.getAllRequests(0, 10, itemRequest1.getRequester().getId(), null)).thenReturn(expectedList);
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", itemRequest1.getRequester().getId())
@@ -155,7 +158,50 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].requester.id").value(itemRequest1.getRequester().getId()))
                 .andExpect(jsonPath("$[1].requester.id").value(itemRequest2.getRequester().getId()));
 
-        verify(itemRequestService).getAllRequests(anyInt(), anyInt(),anyLong());
+        verify(itemRequestService).getAllRequests(anyInt(), anyInt(), anyLong(), isNull());
+    }
+
+    @Test
+    void getAllRequests_WithCursor() throws Exception {
+        ItemRequestOutput itemRequestOutput1 = ItemRequestOutput.builder()
+                .id(9L)
+                .description("lorems9")
+                .created(LocalDateTime.of(2030, 1, 1, 9, 0, 0))
+                .build();
+        ItemRequestOutput itemRequestOutput2 = ItemRequestOutput.builder()
+                .id(8L)
+                .description("lorems8")
+                .created(LocalDateTime.of(2030, 1, 1, 8, 0, 0))
+                .build();
+        ItemRequestCursor after = new ItemRequestCursor(LocalDateTime.of(2030, 1, 1, 10, 0, 0), 10L);
+
+        when(itemRequestService.getAllRequests(0, 2, 1L, after)).thenReturn(List.of(itemRequestOutput1, itemRequestOutput2));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "2")
+                        .param("after", "2030-01-01T10:00:00,10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string(ItemRequestController.NEXT_CURSOR_HEADER, "2030-01-01T08:00,8"));
+    }
+
+    @Test
+    void getAllRequests_LastPageHasNoCursor() throws Exception {
+        when(itemRequestService.getAllRequests(0, 10, 1L, null)).thenReturn(List.of());
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ItemRequestController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllRequests_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
     }
 
     private ItemRequest createItemRequest(int num) {
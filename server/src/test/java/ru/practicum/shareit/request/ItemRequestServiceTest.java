@@ -5,14 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exaption.BadRequestException;
 import ru.practicum.shareit.exaption.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDtoInput;
 import ru.practicum.shareit.request.dto.ItemRequestOutput;
 import ru.practicum.shareit.user.User;
@@ -23,6 +22,7 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -112,10 +112,9 @@ class ItemRequestServiceTest {
         List<ItemRequest> itemRequests = Arrays.asList(itemRequest1, itemRequest2);
 
         when(itemRequestRepository.findByRequesterId(itemRequest1.getRequester().getId())).thenReturn(itemRequests);
-        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest1, null)).thenReturn(itemRequestOutput1);
-        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest2, null)).thenReturn(itemRequestOutput2);
-        when(itemRepository.findByRequestId(itemRequest1.getId())).thenReturn(null);
-        when(itemRepository.findByRequestId(itemRequest2.getId())).thenReturn(null);
+        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest1, Collections.emptyList())).thenReturn(itemRequestOutput1);
+        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest2, Collections.emptyList())).thenReturn(itemRequestOutput2);
+        when(itemRepository.findByRequestIdIn(List.of(itemRequest1.getId(), itemRequest2.getId()))).thenReturn(Collections.emptyList());
         when(userRepository.existsById(itemRequest1.getRequester().getId())).thenReturn(true);
 
         List<ItemRequestOutput> expected = Arrays.asList(itemRequestOutput1, itemRequestOutput2);
@@ -150,16 +149,13 @@ class ItemRequestServiceTest {
                 .created(itemRequest2.getCreated())
                 .requester(itemRequest2.getRequester())
                 .build();
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<ItemRequest> itemRequestsPage = new PageImpl<>(Arrays.asList(itemRequest1, itemRequest2));
 
-        when(itemRequestRepository.findAllByOrderByCreatedDesc(pageable)).thenReturn(itemRequestsPage);
-        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest1, null)).thenReturn(itemRequestOutput1);
-        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest2, null)).thenReturn(itemRequestOutput2);
-        when(itemRepository.findByRequestId(itemRequest1.getId())).thenReturn(null);
-        when(itemRepository.findByRequestId(itemRequest2.getId())).thenReturn(null);
+        when(itemRequestRepository.findOthersRequests(10L, OffsetPageRequest.of(0, 10))).thenReturn(Arrays.asList(itemRequest1, itemRequest2));
+        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest1, Collections.emptyList())).thenReturn(itemRequestOutput1);
+        when(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest2, Collections.emptyList())).thenReturn(itemRequestOutput2);
+        when(itemRepository.findByRequestIdIn(List.of(itemRequest1.getId(), itemRequest2.getId()))).thenReturn(Collections.emptyList());
 
-        List<ItemRequestOutput> expected = Arrays.asList(itemRequestMapper.itemRequestToItemRequestOutput(itemRequest1, null), itemRequestMapper.itemRequestToItemRequestOutput(itemRequest2, null));
+        List<ItemRequestOutput> expected = Arrays.asList(itemRequestOutput1, itemRequestOutput2);
         List<ItemRequestOutput> actual = itemRequestService.getAllRequests(0, 10, 10L);
 
         assertEquals(expected.get(0).getId(), actual.get(0).getId());
@@ -167,6 +163,74 @@ class ItemRequestServiceTest {
         assertEquals(expected.get(0).getDescription(), actual.get(0).getDescription());
     }
 
+    @Test
+    void getRequests_itemsLoadedInOneQueryAndGroupedByRequest() {
+        ItemRequest itemRequest1 = createItemRequest(1);
+        ItemRequest itemRequest2 = createItemRequest(2);
+        ItemRequest itemRequest3 = createItemRequest(3);
+        Item item1 = createItem(1);
+        item1.setRequestId(itemRequest1.getId());
+        Item item2 = createItem(2);
+        item2.setRequestId(itemRequest2.getId());
+        Item item3 = createItem(3);
+        item3.setRequestId(itemRequest1.getId());
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRequestRepository.findByRequesterId(1L)).thenReturn(List.of(itemRequest1, itemRequest2, itemRequest3));
+        when(itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(item1, item2, item3));
+        when(itemRequestMapper.itemRequestToItemRequestOutput(any(), any())).thenCallRealMethod();
+
+        List<ItemRequestOutput> result = itemRequestService.getRequests(1L);
+
+        assertEquals(3, result.size());
+        assertEquals(List.of(item1, item3), result.get(0).getItems());
+        assertEquals(List.of(item2), result.get(1).getItems());
+        assertEquals(Collections.emptyList(), result.get(2).getItems());
+        verify(itemRepository, times(1)).findByRequestIdIn(anyCollection());
+        verify(itemRepository, never()).findByRequestId(anyLong());
+    }
+
+    @Test
+    void getAllRequests_fromIsRowOffset() {
+        when(itemRequestRepository.findOthersRequests(1L, OffsetPageRequest.of(15, 5))).thenReturn(List.of());
+
+        itemRequestService.getAllRequests(15, 5, 1L);
+
+        verify(itemRequestRepository).findOthersRequests(1L, OffsetPageRequest.of(15, 5));
+    }
+
+    @Test
+    void getAllRequests_afterCursorUsesSeekQuery() {
+        ItemRequest itemRequest = createItemRequest(4);
+        ItemRequestCursor after = new ItemRequestCursor(LocalDateTime.now(), 5L);
+
+        when(itemRequestRepository.findOthersRequestsAfter(1L, after.getCreated(), 5L, OffsetPageRequest.of(0, 10)))
+                .thenReturn(List.of(itemRequest));
+        when(itemRepository.findByRequestIdIn(List.of(4L))).thenReturn(Collections.emptyList());
+        when(itemRequestMapper.itemRequestToItemRequestOutput(any(), any())).thenCallRealMethod();
+
+        List<ItemRequestOutput> result = itemRequestService.getAllRequests(30, 10, 1L, after);
+
+        assertEquals(1, result.size());
+        assertEquals(itemRequest.getId(), result.get(0).getId());
+        verify(itemRequestRepository, never()).findOthersRequests(anyLong(), any());
+    }
+
+    @Test
+    void getAllRequests_negativeFrom() {
+        assertThrows(BadRequestException.class, () -> itemRequestService.getAllRequests(-1, 10, 1L));
+    }
+
+    @Test
+    void getAllRequests_emptyPage_noItemQuery() {
+        when(itemRequestRepository.findOthersRequests(1L, OffsetPageRequest.of(0, 10))).thenReturn(List.of());
+
+        List<ItemRequestOutput> result = itemRequestService.getAllRequests(0, 10, 1L);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
     private ItemRequest createItemRequest(int num) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setRequester(createUser(num + 3));